@@ -0,0 +1,68 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.config.XmlConfig;
+import io.github.sskorol.utils.ConfigurationIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.IInvokedMethod;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.sskorol.utils.TestNGUtils.getBrowserConfiguration;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-invocation browser configuration lookup: xml scan vs precompiled index.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConfigurationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int methods;
+
+    private XmlTest xmlTest;
+    private Method targetMethod;
+    private IInvokedMethod invokedMethod;
+    private ConfigurationIndex index;
+
+    @Setup
+    public void setUp() {
+        final SyntheticSuite suite = new SyntheticSuite(methods);
+        xmlTest = suite.getXmlTest();
+        targetMethod = suite.getTargetMethod();
+        invokedMethod = mock(IInvokedMethod.class, RETURNS_DEEP_STUBS);
+        doReturn(targetMethod).when(invokedMethod.getTestMethod().getConstructorOrMethod()).getMethod();
+        index = new ConfigurationIndex(xmlTest);
+    }
+
+    @Benchmark
+    public Optional<XmlConfig> xmlScan() {
+        return getBrowserConfiguration(xmlTest, invokedMethod)
+            .findFirst(config -> config.isPresent() && config.get().hasBrowser())
+            .flatMap(config -> config);
+    }
+
+    @Benchmark
+    public Optional<XmlConfig> index() {
+        return index.get(targetMethod);
+    }
+}
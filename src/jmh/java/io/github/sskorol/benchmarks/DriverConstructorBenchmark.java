@@ -0,0 +1,51 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.core.DriverConstructor;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.joor.Reflect.onClass;
+
+/**
+ * Compares per-call jOOR lookup, which was used for drivers' instantiation before, with pre-linked constructors.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DriverConstructorBenchmark {
+
+    private Capabilities capabilities;
+    private DriverConstructor constructor;
+
+    @Setup
+    public void setUp() {
+        capabilities = new ChromeOptions();
+        constructor = DriverConstructor.of(StubDriver.class);
+    }
+
+    @Benchmark
+    public WebDriver joor() {
+        return onClass(StubDriver.class.getName()).create(capabilities).get();
+    }
+
+    @Benchmark
+    public WebDriver methodHandle() {
+        return constructor.create(capabilities);
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.listeners.BeforeMethodListener;
+import io.github.sskorol.utils.ConfigurationIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.IInvokedMethod;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.github.sskorol.listeners.BaseListener.getDriverMetaData;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Listener's per-invocation overhead: configuration lookup, routing, session creation and teardown of a stub driver.
+ * Note that TestNG's invocation objects are Mockito stubs, which adds a constant overhead to each call.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListenerBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int methods;
+
+    private BeforeMethodListener listener;
+    private IInvokedMethod invokedMethod;
+    private ITestResult testResult;
+
+    @Setup
+    public void setUp() {
+        final SyntheticSuite suite = new SyntheticSuite(methods);
+        invokedMethod = mock(IInvokedMethod.class, RETURNS_DEEP_STUBS);
+        doReturn(true).when(invokedMethod).isTestMethod();
+        doReturn(suite.getTargetMethod()).when(invokedMethod.getTestMethod().getConstructorOrMethod()).getMethod();
+
+        testResult = mock(ITestResult.class, RETURNS_DEEP_STUBS);
+        final ITestContext context = testResult.getTestContext();
+        doReturn(SyntheticSuite.Target.class).when(testResult.getTestClass()).getRealClass();
+        doReturn(suite.getXmlTest()).when(context).getCurrentXmlTest();
+        doReturn(new ConfigurationIndex(suite.getXmlTest()))
+            .when(context)
+            .getAttribute(ConfigurationIndex.class.getName());
+
+        listener = new BeforeMethodListener();
+        listener.loadServiceProviders();
+    }
+
+    @TearDown
+    public void tearDown() {
+        listener.unloadServiceProviders();
+    }
+
+    @Benchmark
+    public Object invocation() {
+        listener.beforeInvocation(invokedMethod, testResult);
+        final Object driver = getDriverMetaData().getWebDriver();
+        listener.afterInvocation(invokedMethod, testResult);
+        return driver;
+    }
+}
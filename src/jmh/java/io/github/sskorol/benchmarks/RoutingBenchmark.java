@@ -0,0 +1,68 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.core.Browser;
+import io.github.sskorol.core.RoutingTable;
+import io.github.sskorol.core.WebDriverFactory;
+import io.github.sskorol.core.WebDriverProvider;
+import one.util.streamex.StreamEx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.sskorol.core.WebDriverProvider.WDP_DEFAULT;
+
+/**
+ * Browser and provider routing: linear scans, which were done per test before, vs precomputed routing table.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoutingBenchmark {
+
+    private final List<Browser> browsers = new CopyOnWriteArrayList<>();
+    private final List<WebDriverProvider> providers = new CopyOnWriteArrayList<>();
+    private RoutingTable routingTable;
+
+    @Setup
+    public void setUp() {
+        StreamEx.of(Browser.Name.values())
+                .remove(name -> name == Browser.Name.Remote)
+                .map(name -> (Browser) () -> name)
+                .forEach(browsers::add);
+        providers.add(new WebDriverFactory());
+        providers.add(new StubWebDriverProvider());
+        routingTable = RoutingTable.of(browsers, providers);
+    }
+
+    @Benchmark
+    public void linearScan(final Blackhole blackhole) {
+        blackhole.consume(StreamEx.of(browsers).findFirst(b -> b.name().getBrowserName().equals("edge")));
+        blackhole.consume(StreamEx.of(providers).findFirst(this::isProviderMatching));
+    }
+
+    @Benchmark
+    public void routingTable(final Blackhole blackhole) {
+        blackhole.consume(routingTable.getBrowser("edge"));
+        blackhole.consume(routingTable.getProvider());
+    }
+
+    private boolean isProviderMatching(final WebDriverProvider provider) {
+        return (providers.size() == 1 && WDP_DEFAULT.equals(provider.label()))
+               || (providers.size() > 1 && !WDP_DEFAULT.equals(provider.label()));
+    }
+}
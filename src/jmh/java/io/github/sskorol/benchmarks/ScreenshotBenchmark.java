@@ -0,0 +1,143 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.core.MetricsSink;
+import io.github.sskorol.core.Screenshot;
+import io.github.sskorol.core.ScreenshotConsumer;
+import io.github.sskorol.core.ScreenshotDispatcher;
+import io.github.sskorol.core.ScreenshotStreamConsumer;
+import org.aeonbits.owner.ConfigFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Parallel screenshots' delivery to an async channel-based consumer: {@link Base64.Decoder} vs chunked decoding.
+ * Run with gc profiler, which is enabled in build.gradle, and compare gc.alloc.rate.norm and peakHeapMb of both
+ * methods.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(8)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScreenshotBenchmark {
+
+    private static final MetricsSink.Tags TAGS = new MetricsSink.Tags("chrome", "wdp_default", true);
+
+    @Param({"1048576", "3145728"})
+    private int size;
+
+    private final WritableByteChannel channel = Channels.newChannel(OutputStream.nullOutputStream());
+    private final ITestResult testResult = mock(ITestResult.class);
+    private ScreenshotDispatcher dispatcher;
+    private List<ScreenshotConsumer> legacyConsumers;
+    private List<ScreenshotStreamConsumer> streamConsumers;
+    private String base64;
+
+    @Setup
+    public void setUp() {
+        final byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        base64 = Base64.getEncoder().encodeToString(content);
+        dispatcher = new ScreenshotDispatcher(ConfigFactory.create(WebDriverConfig.class, Map.of(
+            "wd.screenshot.async", "true",
+            "wd.screenshot.threads", "4",
+            "wd.screenshot.queue.size", "16"
+        )));
+        legacyConsumers = List.of((screenshot, result) -> write(ByteBuffer.wrap(screenshot)));
+        streamConsumers = List.of((screenshot, result) -> write(screenshot.asByteBuffer()));
+    }
+
+    @TearDown(Level.Iteration)
+    public void flush() {
+        dispatcher.flush();
+    }
+
+    @Benchmark
+    public void heapArray(final HeapUsage heapUsage) {
+        dispatcher.dispatch(Base64.getDecoder().decode(base64), testResult, legacyConsumers, TAGS);
+        heapUsage.update();
+    }
+
+    @Benchmark
+    public void chunkedDecoding(final HeapUsage heapUsage) {
+        dispatcher.dispatch(Screenshot.fromBase64(base64), testResult, streamConsumers, TAGS);
+        heapUsage.update();
+    }
+
+    private void write(final ByteBuffer content) {
+        try {
+            synchronized (channel) {
+                channel.write(content);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Sum of heap pools' peak usage within an iteration. It's reported by the first thread only, as JMH sums counters
+     * of all threads.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HeapUsage {
+
+        private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans()
+            .stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+
+        public long peakHeapMb;
+        private boolean reporter;
+
+        @Setup(Level.Iteration)
+        public void reset(final ThreadParams threadParams) {
+            reporter = threadParams.getThreadIndex() == 0;
+            peakHeapMb = 0;
+            if (reporter) {
+                HEAP_POOLS.forEach(MemoryPoolMXBean::resetPeakUsage);
+            }
+        }
+
+        void update() {
+            if (reporter) {
+                peakHeapMb = HEAP_POOLS.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() >> 20;
+            }
+        }
+    }
+}
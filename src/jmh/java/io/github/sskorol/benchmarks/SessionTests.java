@@ -0,0 +1,29 @@
+package io.github.sskorol.benchmarks;
+
+import org.testng.ITestContext;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+import static io.github.sskorol.listeners.BaseListener.getDriverMetaData;
+
+/**
+ * Test class of a macro-benchmark's suite: each data row requires its own session.
+ */
+public class SessionTests {
+
+    public static final String SESSIONS = "sessions";
+
+    @DataProvider(parallel = true)
+    public Iterator<Object[]> sessions(final ITestContext context) {
+        final int count = Integer.parseInt(context.getCurrentXmlTest().getParameter(SESSIONS));
+        return IntStream.range(0, count).mapToObj(i -> new Object[]{i}).iterator();
+    }
+
+    @Test(dataProvider = "sessions")
+    public void session(final int index) {
+        getDriverMetaData().getWebDriver().getWindowHandle();
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.core.Browser;
+
+public class StubBrowser implements Browser {
+
+    @Override
+    public Name name() {
+        return Name.Chrome;
+    }
+}
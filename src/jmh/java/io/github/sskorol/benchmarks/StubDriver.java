@@ -0,0 +1,87 @@
+package io.github.sskorol.benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Session-less driver, which allows measuring instantiation overhead only.
+ */
+public class StubDriver implements WebDriver {
+
+    private final Capabilities capabilities;
+
+    public StubDriver(final Capabilities capabilities) {
+        this.capabilities = capabilities;
+    }
+
+    public Capabilities getCapabilities() {
+        return capabilities;
+    }
+
+    @Override
+    public void get(final String url) {
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return null;
+    }
+
+    @Override
+    public String getTitle() {
+        return null;
+    }
+
+    @Override
+    public List<WebElement> findElements(final By by) {
+        return List.of();
+    }
+
+    @Override
+    public WebElement findElement(final By by) {
+        return null;
+    }
+
+    @Override
+    public String getPageSource() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void quit() {
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Set.of();
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return null;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return null;
+    }
+
+    @Override
+    public Navigation navigate() {
+        return null;
+    }
+
+    @Override
+    public Options manage() {
+        return null;
+    }
+}
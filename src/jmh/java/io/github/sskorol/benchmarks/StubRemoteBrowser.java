@@ -0,0 +1,30 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.core.Browser;
+
+/**
+ * Remote browser, which points to {@link io.github.sskorol.fixtures.W3CStubServer} started by a benchmark.
+ */
+public class StubRemoteBrowser implements Browser {
+
+    private static volatile String url = "http://localhost:4444/wd/hub";
+
+    public static void setUrl(final String url) {
+        StubRemoteBrowser.url = url;
+    }
+
+    @Override
+    public Name name() {
+        return Name.Firefox;
+    }
+
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    @Override
+    public String url() {
+        return url;
+    }
+}
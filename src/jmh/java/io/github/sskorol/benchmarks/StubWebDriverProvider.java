@@ -0,0 +1,22 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.config.XmlConfig;
+import io.github.sskorol.core.Browser;
+import io.github.sskorol.core.WebDriverProvider;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Creates session-less drivers, so that only library's own overhead is measured.
+ */
+public class StubWebDriverProvider implements WebDriverProvider {
+
+    @Override
+    public String label() {
+        return "stub";
+    }
+
+    @Override
+    public WebDriver createDriver(final Browser browser, final XmlConfig config) {
+        return new StubDriver(browser.configuration(config));
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.core.WebDriverFactory;
+import io.github.sskorol.core.WebDriverProvider;
+import io.github.sskorol.fixtures.W3CStubServer;
+import io.github.sskorol.listeners.BeforeMethodListener;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.IInvokedMethod;
+import org.testng.ISuite;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static org.openqa.selenium.remote.CapabilityType.BROWSER_NAME;
+
+/**
+ * End-to-end throughput: whole TestNG suites are driven through {@link BeforeMethodListener} against an in-process
+ * {@link W3CStubServer}. Primary score is suites per second. Secondary ones are sessions per second and listener's
+ * overhead per session, i.e. time spent in listener's callbacks minus time spent by the server on handling requests.
+ * Note that the overhead includes Selenium's client side: HTTP calls and JSON (de)serialization.
+ */
+@Fork(1)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SuiteMacroBenchmark {
+
+    private static final int SESSIONS_PER_SUITE = 64;
+
+    @Param({"1", "8", "32"})
+    private int threads;
+
+    @Param({"0", "20"})
+    private int latencyMillis;
+
+    private W3CStubServer server;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new W3CStubServer().withLatency(Duration.ofMillis(latencyMillis)).start();
+        StubRemoteBrowser.setUrl(server.getUrl());
+        System.setProperty("wd.take.screenshot", "true");
+        WD_CONFIG.reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+        System.clearProperty("wd.take.screenshot");
+        WD_CONFIG.reload();
+    }
+
+    @Benchmark
+    public void suite(final Sessions sessions, final Overhead overhead) {
+        final long createdBefore = server.getCreatedSessions();
+        final long handlingBefore = server.getHandlingNanos();
+        final TimingListener listener = new TimingListener();
+
+        final TestNG testNG = new TestNG(false);
+        testNG.setUseDefaultListeners(false);
+        testNG.setVerbose(0);
+        testNG.setXmlSuites(List.of(xmlSuite()));
+        testNG.addListener(listener);
+        testNG.run();
+
+        final long created = server.getCreatedSessions() - createdBefore;
+        sessions.sessions += created;
+        overhead.add(listener.getNanos(), server.getHandlingNanos() - handlingBefore, created);
+    }
+
+    private XmlSuite xmlSuite() {
+        final XmlSuite suite = new XmlSuite();
+        suite.setName("Macro suite");
+        suite.setDataProviderThreadCount(threads);
+        suite.setParameters(Map.of(BROWSER_NAME, "firefox", SessionTests.SESSIONS, String.valueOf(SESSIONS_PER_SUITE)));
+
+        final XmlTest test = new XmlTest(suite);
+        test.setName("Macro test");
+        test.setXmlClasses(List.of(new XmlClass(SessionTests.class)));
+        return suite;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Sessions {
+
+        public long sessions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            sessions = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Overhead {
+
+        private long listenerNanos;
+        private long serverNanos;
+        private long sessions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            listenerNanos = 0;
+            serverNanos = 0;
+            sessions = 0;
+        }
+
+        public double listenerOverheadMicros() {
+            return sessions == 0 ? 0 : (listenerNanos - serverNanos) / 1000.0 / sessions;
+        }
+
+        void add(final long listener, final long server, final long created) {
+            listenerNanos += listener;
+            serverNanos += server;
+            sessions += created;
+        }
+    }
+
+    /**
+     * Routes all browsers to the default factory, and accumulates time spent in listener's callbacks.
+     */
+    public static class TimingListener extends BeforeMethodListener {
+
+        private final LongAdder nanos = new LongAdder();
+
+        @Override
+        public List<WebDriverProvider> getWebDriverProviders() {
+            return List.of(new WebDriverFactory());
+        }
+
+        @Override
+        public void onStart(final ISuite suite) {
+            final long start = System.nanoTime();
+            super.onStart(suite);
+            nanos.add(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onFinish(final ISuite suite) {
+            final long start = System.nanoTime();
+            super.onFinish(suite);
+            nanos.add(System.nanoTime() - start);
+        }
+
+        @Override
+        public void beforeInvocation(final IInvokedMethod method, final ITestResult testResult) {
+            final long start = System.nanoTime();
+            super.beforeInvocation(method, testResult);
+            nanos.add(System.nanoTime() - start);
+        }
+
+        @Override
+        public void afterInvocation(final IInvokedMethod method, final ITestResult testResult) {
+            final long start = System.nanoTime();
+            super.afterInvocation(method, testResult);
+            nanos.add(System.nanoTime() - start);
+        }
+
+        long getNanos() {
+            return nanos.sum();
+        }
+    }
+}
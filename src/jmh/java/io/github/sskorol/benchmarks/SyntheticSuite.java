@@ -0,0 +1,65 @@
+package io.github.sskorol.benchmarks;
+
+import lombok.Getter;
+import one.util.streamex.IntStreamEx;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.openqa.selenium.remote.CapabilityType.BROWSER_NAME;
+import static org.openqa.selenium.remote.CapabilityType.PLATFORM_NAME;
+
+/**
+ * Xml suite with a given amount of test methods. Target method is declared last, which is the worst case for
+ * linear lookups.
+ */
+@Getter
+public class SyntheticSuite {
+
+    private final XmlSuite xmlSuite = new XmlSuite();
+    private final XmlTest xmlTest = new XmlTest(xmlSuite);
+    private final Method targetMethod;
+
+    public SyntheticSuite(final int methods) {
+        xmlSuite.setName("Synthetic suite");
+        xmlSuite.setParameters(new HashMap<>(Map.of(BROWSER_NAME, "chrome", PLATFORM_NAME, "LINUX")));
+        xmlTest.setName("Synthetic test");
+
+        final List<XmlClass> classes = new ArrayList<>();
+        IntStreamEx.range(methods - 1).forEach(i -> classes.add(xmlClass("synthetic.Tests" + i, "test" + i)));
+        classes.add(xmlClass(Target.class.getName(), "target"));
+        xmlTest.setXmlClasses(classes);
+
+        try {
+            targetMethod = Target.class.getMethod("target");
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private XmlClass xmlClass(final String name, final String method) {
+        final XmlClass xmlClass = new XmlClass(name, false);
+        xmlClass.setXmlTest(xmlTest);
+        final XmlInclude xmlInclude = new XmlInclude(method);
+        xmlInclude.setXmlClass(xmlClass);
+        xmlInclude.setParameters(new HashMap<>(Map.of("feature", "on")));
+        xmlClass.setIncludedMethods(List.of(xmlInclude));
+        return xmlClass;
+    }
+
+    /**
+     * Test class, which is referenced by the last xml class of a suite.
+     */
+    public static class Target {
+
+        public void target() {
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.core.VisualDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparison of 4K screenshots: identical ones, which require a full scan, and ones with a single changed pixel.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VisualDiffBenchmark {
+
+    private static final int WIDTH = 3840;
+    private static final int HEIGHT = 2160;
+
+    @Param({"TYPE_INT_RGB", "TYPE_3BYTE_BGR"})
+    private String type;
+
+    @Param({"64", "256"})
+    private int tileSize;
+
+    private ForkJoinPool pool;
+    private VisualDiff visualDiff;
+    private BufferedImage baseline;
+    private BufferedImage identical;
+    private BufferedImage changed;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        final int imageType = BufferedImage.class.getField(type).getInt(null);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        visualDiff = new VisualDiff(tileSize, 0, pool);
+        baseline = randomImage(imageType);
+        identical = copy(baseline, imageType);
+        changed = copy(baseline, imageType);
+        changed.setRGB(WIDTH / 2, HEIGHT / 2, ~changed.getRGB(WIDTH / 2, HEIGHT / 2));
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public VisualDiff.Result identical() {
+        return visualDiff.compare(identical, baseline, false);
+    }
+
+    @Benchmark
+    public VisualDiff.Result changedFullScan() {
+        return visualDiff.compare(changed, baseline, false);
+    }
+
+    @Benchmark
+    public VisualDiff.Result changedFailFast() {
+        return visualDiff.compare(changed, baseline, true);
+    }
+
+    private static BufferedImage randomImage(final int imageType) {
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, imageType);
+        final Random random = new Random(42);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage copy(final BufferedImage source, final int imageType) {
+        final BufferedImage copy = new BufferedImage(source.getWidth(), source.getHeight(), imageType);
+        copy.setData(source.getData());
+        return copy;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.sskorol.benchmarks;
+
+import io.github.sskorol.config.XmlConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.sskorol.config.XmlConfig.TEST_NAME;
+import static org.openqa.selenium.remote.CapabilityType.*;
+
+/**
+ * Config accessors, which are called at least once per test invocation.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class XmlConfigBenchmark {
+
+    private XmlConfig config;
+
+    @Setup
+    public void setUp() {
+        config = new XmlConfig(Map.of(
+            BROWSER_NAME, "chrome",
+            BROWSER_VERSION, "103.0",
+            PLATFORM_NAME, "LINUX",
+            TEST_NAME, "target",
+            "feature", "on",
+            "enableVNC", "true",
+            "screenResolution", "1280x1024x24"
+        ));
+    }
+
+    @Benchmark
+    public Map<String, String> customParameters() {
+        return config.getCustomParameters();
+    }
+
+    @Benchmark
+    public String asString() {
+        return config.toString();
+    }
+
+    @Benchmark
+    public String sessionKey() {
+        return config.getSessionKey();
+    }
+}
@@ -4,6 +4,8 @@ import org.aeonbits.owner.Config;
 import org.aeonbits.owner.ConfigFactory;
 import org.aeonbits.owner.Reloadable;
 
+import java.util.List;
+
 /**
  * WebDriver configuration file. Wait timeout could be overridden by system property or custom wd.properties file.
  */
@@ -24,4 +26,256 @@ public interface WebDriverConfig extends Config, Reloadable {
     @Key("wd.take.screenshot")
     @DefaultValue("false")
     boolean takeScreenshot();
+
+    @Key("wd.pool.enabled")
+    @DefaultValue("false")
+    boolean poolEnabled();
+
+    @Key("wd.pool.max.size")
+    @DefaultValue("10")
+    int poolMaxSize();
+
+    @Key("wd.pool.max.idle")
+    @DefaultValue("60")
+    long poolMaxIdle();
+
+    @Key("wd.pool.max.uses")
+    @DefaultValue("50")
+    int poolMaxUses();
+
+    @Key("wd.pool.reset")
+    @DefaultValue("cookies,storage,windows")
+    List<String> poolReset();
+
+    @Key("wd.pool.warmup")
+    @DefaultValue("false")
+    boolean poolWarmUp();
+
+    @Key("wd.pool.warmup.size")
+    @DefaultValue("0")
+    int poolWarmUpSize();
+
+    @Key("wd.pool.warmup.timeout")
+    @DefaultValue("30")
+    long poolWarmUpTimeout();
+
+    @Key("wd.teardown.async")
+    @DefaultValue("false")
+    boolean teardownAsync();
+
+    @Key("wd.teardown.threads")
+    @DefaultValue("4")
+    int teardownThreads();
+
+    @Key("wd.teardown.queue.size")
+    @DefaultValue("100")
+    int teardownQueueSize();
+
+    @Key("wd.teardown.timeout")
+    @DefaultValue("30")
+    long teardownTimeout();
+
+    @Key("wd.teardown.drain.timeout")
+    @DefaultValue("120")
+    long teardownDrainTimeout();
+
+    @Key("wd.screenshot.async")
+    @DefaultValue("false")
+    boolean screenshotAsync();
+
+    @Key("wd.screenshot.threads")
+    @DefaultValue("2")
+    int screenshotThreads();
+
+    @Key("wd.screenshot.queue.size")
+    @DefaultValue("50")
+    int screenshotQueueSize();
+
+    @Key("wd.screenshot.overflow")
+    @DefaultValue("block")
+    String screenshotOverflow();
+
+    @Key("wd.screenshot.flush.timeout")
+    @DefaultValue("60")
+    long screenshotFlushTimeout();
+
+    @Key("wd.screenshot.mode")
+    @DefaultValue("webdriver")
+    String screenshotMode();
+
+    @Key("wd.screenshot.format")
+    @DefaultValue("png")
+    String screenshotFormat();
+
+    @Key("wd.screenshot.quality")
+    @DefaultValue("80")
+    int screenshotQuality();
+
+    @Key("wd.screenshot.clip")
+    @DefaultValue("")
+    String screenshotClip();
+
+    @Key("wd.screenshot.full.page")
+    @DefaultValue("false")
+    boolean screenshotFullPage();
+
+    @Key("wd.screenshot.dir")
+    @DefaultValue("build/screenshots")
+    String screenshotDir();
+
+    @Key("wd.screenshot.fsync")
+    @DefaultValue("false")
+    boolean screenshotFsync();
+
+    @Key("wd.screencast.enabled")
+    @DefaultValue("false")
+    boolean screencastEnabled();
+
+    @Key("wd.screencast.format")
+    @DefaultValue("jpeg")
+    String screencastFormat();
+
+    @Key("wd.screencast.quality")
+    @DefaultValue("60")
+    int screencastQuality();
+
+    @Key("wd.screencast.max.width")
+    @DefaultValue("1280")
+    int screencastMaxWidth();
+
+    @Key("wd.screencast.max.height")
+    @DefaultValue("720")
+    int screencastMaxHeight();
+
+    @Key("wd.screencast.every.nth.frame")
+    @DefaultValue("1")
+    int screencastEveryNthFrame();
+
+    @Key("wd.screencast.window")
+    @DefaultValue("30")
+    long screencastWindow();
+
+    @Key("wd.screencast.max.size")
+    @DefaultValue("32")
+    int screencastMaxSize();
+
+    @Key("wd.screencast.dir")
+    @DefaultValue("build/screencasts")
+    String screencastDir();
+
+    @Key("wd.command.metrics")
+    @DefaultValue("false")
+    boolean commandMetrics();
+
+    @Key("wd.command.report")
+    @DefaultValue("build/reports/webdriver-commands.csv")
+    String commandReport();
+
+    @Key("wd.visual.enabled")
+    @DefaultValue("false")
+    boolean visualEnabled();
+
+    @Key("wd.visual.baseline.dir")
+    @DefaultValue("src/test/resources/baselines")
+    String visualBaselineDir();
+
+    @Key("wd.visual.update")
+    @DefaultValue("false")
+    boolean visualUpdate();
+
+    @Key("wd.visual.tile.size")
+    @DefaultValue("128")
+    int visualTileSize();
+
+    @Key("wd.visual.tolerance")
+    @DefaultValue("0")
+    int visualTolerance();
+
+    @Key("wd.visual.threads")
+    @DefaultValue("0")
+    int visualThreads();
+
+    @Key("wd.visual.threshold")
+    @DefaultValue("0")
+    double visualThreshold();
+
+    @Key("wd.visual.fail.fast")
+    @DefaultValue("false")
+    boolean visualFailFast();
+
+    @Key("wd.visual.fail.on.mismatch")
+    @DefaultValue("false")
+    boolean visualFailOnMismatch();
+
+    @Key("wd.driver.offline")
+    @DefaultValue("false")
+    boolean driverOffline();
+
+    @Key("wd.driver.index")
+    @DefaultValue("${user.home}/.cache/webdriver-supplier/resolutions.properties")
+    String driverIndex();
+
+    @Key("wd.driver.lazy")
+    @DefaultValue("false")
+    boolean driverLazy();
+
+    @Key("wd.driver.scope")
+    @DefaultValue("method")
+    String driverScope();
+
+    @Key("wd.scope.reset")
+    @DefaultValue("cookies,storage,windows")
+    List<String> scopeReset();
+
+    @Key("wd.jfr.events")
+    @DefaultValue("false")
+    boolean jfrEvents();
+
+    @Key("wd.remote.max.sessions")
+    @DefaultValue("0")
+    int remoteMaxSessions();
+
+    @Key("wd.remote.admission.timeout")
+    @DefaultValue("300")
+    long remoteAdmissionTimeout();
+
+    @Key("wd.retry.attempts")
+    @DefaultValue("1")
+    int retryAttempts();
+
+    @Key("wd.retry.backoff")
+    @DefaultValue("500")
+    long retryBackoff();
+
+    @Key("wd.retry.max.backoff")
+    @DefaultValue("10000")
+    long retryMaxBackoff();
+
+    @Key("wd.retry.on")
+    @DefaultValue("timed out,queue,capacity,empty pool,too many sessions")
+    List<String> retryOn();
+
+    @Key("wd.breaker.threshold")
+    @DefaultValue("0")
+    int breakerThreshold();
+
+    @Key("wd.breaker.open.duration")
+    @DefaultValue("30")
+    long breakerOpenDuration();
+
+    @Key("wd.http.shared")
+    @DefaultValue("false")
+    boolean httpShared();
+
+    @Key("wd.http.version")
+    @DefaultValue("http_1_1")
+    String httpVersion();
+
+    @Key("wd.http.connect.timeout")
+    @DefaultValue("10")
+    long httpConnectTimeout();
+
+    @Key("wd.http.read.timeout")
+    @DefaultValue("180")
+    long httpReadTimeout();
 }
@@ -6,11 +6,14 @@ import lombok.val;
 import one.util.streamex.EntryStream;
 import org.openqa.selenium.Platform;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
 
+import static java.util.Collections.unmodifiableMap;
 import static java.util.Optional.ofNullable;
 import static org.openqa.selenium.remote.CapabilityType.*;
 
@@ -23,6 +26,7 @@ import static org.openqa.selenium.remote.CapabilityType.*;
 public class XmlConfig {
 
     public static final String TEST_NAME = "testName";
+    public static final String DRIVER_SCOPE = "driverScope";
     private final Map<String, String> parameters;
     private final List<String> mandatoryParameters = List.of(BROWSER_NAME, BROWSER_VERSION, PLATFORM_NAME, TEST_NAME);
 
@@ -47,6 +51,10 @@ public class XmlConfig {
         return getValue(TEST_NAME).orElse(UUID.randomUUID().toString());
     }
 
+    public Optional<String> getDriverScope() {
+        return getValue(DRIVER_SCOPE);
+    }
+
     public boolean hasBrowser() {
         return hasValue(BROWSER_NAME);
     }
@@ -73,11 +81,32 @@ public class XmlConfig {
             .toMap();
     }
 
+    /**
+     * Identifies browser sessions, which could be shared between tests. Test name and driver scope are intentionally
+     * excluded, as they don't affect the browser itself.
+     */
+    public String getSessionKey() {
+        return toString() + EntryStream.of(getCustomParameters())
+                                       .removeKeys(DRIVER_SCOPE::equals)
+                                       .toCustomMap(TreeMap::new);
+    }
+
     public XmlConfig extendParameters(final Map<String, String> parameters) {
         this.parameters.putAll(parameters);
         return this;
     }
 
+    /**
+     * Unlike {@link #extendParameters(Map)}, keeps the current instance untouched.
+     *
+     * @return a new immutable config with merged parameters
+     */
+    public XmlConfig withParameters(final Map<String, String> parameters) {
+        final Map<String, String> merged = new HashMap<>(this.parameters);
+        merged.putAll(parameters);
+        return new XmlConfig(unmodifiableMap(merged));
+    }
+
     @Override
     public String toString() {
         val browser = getBrowser();
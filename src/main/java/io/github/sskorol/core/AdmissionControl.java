@@ -0,0 +1,95 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.config.WebDriverConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static io.github.sskorol.core.DriverMetrics.DRIVER_METRICS;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Limits the number of concurrent remote sessions per grid endpoint. Callers, which exceed the limit, wait in FIFO
+ * order for a session to be closed, instead of flooding the grid with new session requests. A permit is held from
+ * session's creation till its quit call.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class AdmissionControl {
+
+    public static final AdmissionControl ADMISSION_CONTROL = new AdmissionControl(WD_CONFIG);
+
+    private final Map<String, Semaphore> endpoints = new ConcurrentHashMap<>();
+    private final Map<WebDriver, Semaphore> permits = new ConcurrentHashMap<>();
+    private final WebDriverConfig config;
+
+    /**
+     * Creates a new session as soon as the endpoint has a free slot.
+     *
+     * @throws IllegalStateException if no slot was freed within wd.remote.admission.timeout
+     */
+    public WebDriver admit(final String url, final MetricsSink.Tags tags, final Supplier<WebDriver> factory) {
+        var maxSessions = config.remoteMaxSessions();
+        if (maxSessions <= 0) {
+            return factory.get();
+        }
+
+        var endpoint = endpoints.computeIfAbsent(url, key -> new Semaphore(maxSessions, true));
+        var start = System.nanoTime();
+        var admitted = tryAcquire(endpoint);
+        DRIVER_METRICS.record(MetricsSink.Phase.ADMISSION_WAIT, tags, System.nanoTime() - start);
+        if (!admitted) {
+            throw new IllegalStateException("No free slot of " + url + " within " + config.remoteAdmissionTimeout()
+                                            + " sec: " + maxSessions + " sessions are active, "
+                                            + endpoint.getQueueLength() + " are waiting");
+        }
+
+        try {
+            var driver = factory.get();
+            permits.put(driver, endpoint);
+            return driver;
+        } catch (RuntimeException ex) {
+            endpoint.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Frees endpoint's slot held by a given session, if any. Should be called once session is closed.
+     */
+    public void release(final WebDriver driver) {
+        ofNullable(driver).map(permits::remove).ifPresent(Semaphore::release);
+    }
+
+    /**
+     * @return number of callers, which are waiting for a free slot of a given endpoint
+     */
+    public int getQueueLength(final String url) {
+        return ofNullable(endpoints.get(url)).map(Semaphore::getQueueLength).orElse(0);
+    }
+
+    /**
+     * @return number of sessions, which currently hold endpoint's slots
+     */
+    public int getActiveSessions(final String url) {
+        return ofNullable(endpoints.get(url)).map(e -> config.remoteMaxSessions() - e.availablePermits()).orElse(0);
+    }
+
+    private boolean tryAcquire(final Semaphore endpoint) {
+        try {
+            return endpoint.tryAcquire(config.remoteAdmissionTimeout(), SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for a free slot");
+            return false;
+        }
+    }
+}
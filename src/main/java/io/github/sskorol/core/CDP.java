@@ -10,13 +10,59 @@ import java.net.URISyntaxException;
  */
 public interface CDP {
 
+    /**
+     * Opens a DevTools connection of {@link WebDriverContainer#getDevToolsService()}. Override it to customize how
+     * a connection is established; a null result is reported to the caller as {@link IllegalStateException}.
+     * Without override, {@link #connectCDP(String)} is called directly, so that failure's cause is not lost.
+     *
+     * @return null if connection can't be established
+     */
     default ChromeDevToolsService initCDP(final String sessionId) {
         try {
-            return ChromeDevToolsService.from(cdpWebSocketUrl(sessionId));
-        } catch (WebSocketServiceException | URISyntaxException ignored) {
+            return connectCDP(sessionId);
+        } catch (IllegalStateException ignored) {
             return null;
         }
     }
 
+    /**
+     * Default connection, used by {@link #initCDP(String)}.
+     *
+     * @throws IllegalStateException if connection can't be established
+     */
+    default ChromeDevToolsService connectCDP(final String sessionId) {
+        try {
+            return ChromeDevToolsService.from(cdpWebSocketUrl(sessionId));
+        } catch (WebSocketServiceException | URISyntaxException ex) {
+            throw new IllegalStateException("Unable to connect to DevTools of " + sessionId + " session", ex);
+        }
+    }
+
+    /**
+     * Connection opened by {@link WebDriverContainer#getDevToolsService()}: {@link #connectCDP(String)}, so that its
+     * failure's cause is kept, unless {@link #initCDP(String)} is overridden.
+     *
+     * @throws IllegalStateException if connection can't be established
+     */
+    default ChromeDevToolsService openCDP(final String sessionId) {
+        if (!overridesInitCDP()) {
+            return connectCDP(sessionId);
+        }
+
+        var service = initCDP(sessionId);
+        if (service == null) {
+            throw new IllegalStateException("Unable to connect to DevTools of " + sessionId + " session");
+        }
+        return service;
+    }
+
     String cdpWebSocketUrl(String sessionId);
+
+    private boolean overridesInitCDP() {
+        try {
+            return getClass().getMethod("initCDP", String.class).getDeclaringClass() != CDP.class;
+        } catch (NoSuchMethodException ex) {
+            return true;
+        }
+    }
 }
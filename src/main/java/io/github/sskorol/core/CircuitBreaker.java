@@ -0,0 +1,73 @@
+package io.github.sskorol.core;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Stops sending new session requests to an endpoint after a number of consecutive failures. Once open period is over,
+ * a single probe request is let through: its success closes the circuit, while failure opens it again.
+ */
+@RequiredArgsConstructor
+public class CircuitBreaker {
+
+    /**
+     * Circuit's states.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+    @Getter
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    /**
+     * @return false if a request should not be sent to an endpoint at the moment
+     */
+    public synchronized boolean tryAcquire() {
+        if (failureThreshold <= 0 || state == State.CLOSED) {
+            return true;
+        }
+
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    /**
+     * Releases a request, which outcome tells nothing about endpoint's health, e.g. a local or deterministic failure.
+     * Failures' count is kept, while a half-open probe is handed over to the next request.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (failureThreshold <= 0) {
+            return;
+        }
+
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+}
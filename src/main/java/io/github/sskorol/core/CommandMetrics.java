@@ -0,0 +1,136 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.utils.LatencyHistogram;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.util.streamex.EntryStream;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static java.lang.invoke.MethodType.methodType;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Per-command latency instrumentation. Executor of each created {@link RemoteWebDriver} is replaced with
+ * {@link TimedCommandExecutor}, so that driver's type, session id and DevTools access stay intact. Commands of each
+ * test are drained on cleanup, and aggregated per browser, provider and command into a report written on suite finish.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class CommandMetrics {
+
+    public static final CommandMetrics COMMAND_METRICS = new CommandMetrics(WD_CONFIG);
+
+    private static final Try<MethodHandle> SET_COMMAND_EXECUTOR = Try.of(
+        () -> MethodHandles.privateLookupIn(RemoteWebDriver.class, MethodHandles.lookup())
+                           .findVirtual(RemoteWebDriver.class, "setCommandExecutor",
+                                        methodType(void.class, CommandExecutor.class))
+    );
+
+    private static final MetricsSink.Tags UNKNOWN_SESSION = new MetricsSink.Tags(null, null, false);
+
+    private final WebDriverConfig config;
+    private final Map<Key, LatencyHistogram> aggregate = new ConcurrentHashMap<>();
+
+    /**
+     * @return the same driver, which executor is decorated, if instrumentation is enabled
+     */
+    public WebDriver instrument(final WebDriver driver) {
+        if (!config.commandMetrics() || !(driver instanceof RemoteWebDriver rwd)
+            || rwd.getCommandExecutor() instanceof TimedCommandExecutor) {
+            return driver;
+        }
+
+        Try.run(() -> SET_COMMAND_EXECUTOR.get().invokeExact(rwd, (CommandExecutor) new TimedCommandExecutor(
+            rwd.getCommandExecutor()
+        ))).onFailure(ex -> log.warn("Unable to instrument {} commands", driver.getClass().getName(), ex));
+        return driver;
+    }
+
+    /**
+     * Takes commands' timings recorded since the previous call, and adds them to suite-wide aggregate.
+     *
+     * @return per-command histograms of a given session, or empty, if it's not instrumented
+     */
+    public Optional<Map<String, LatencyHistogram>> collect(final WebDriverContainer container) {
+        return Optional.ofNullable(container.getWebDriver())
+                       .filter(RemoteWebDriver.class::isInstance)
+                       .map(driver -> ((RemoteWebDriver) driver).getCommandExecutor())
+                       .filter(TimedCommandExecutor.class::isInstance)
+                       .map(executor -> ((TimedCommandExecutor) executor).drain())
+                       .map(histograms -> {
+                           var tags = Optional.ofNullable(container.getTags()).orElse(UNKNOWN_SESSION);
+                           histograms.forEach((command, histogram) -> aggregate
+                               .computeIfAbsent(new Key(tags, command), key -> new LatencyHistogram())
+                               .merge(histogram));
+                           return histograms;
+                       });
+    }
+
+    public Map<Key, LatencyHistogram> getAggregate() {
+        return Map.copyOf(aggregate);
+    }
+
+    /**
+     * Writes aggregated timings as CSV, sorted by total time, so that dominating commands come first.
+     */
+    public void report() {
+        if (aggregate.isEmpty()) {
+            return;
+        }
+
+        var path = Paths.get(config.commandReport()).toAbsolutePath();
+        var csv = new StringBuilder("browser,provider,remote,command,count,total_ms,p50_ms,p95_ms,p99_ms,max_ms\n");
+        EntryStream.of(aggregate)
+                   .reverseSorted(Map.Entry.comparingByValue(
+                       Comparator.comparingLong(LatencyHistogram::getTotalMicros)
+                   ))
+                   .forKeyValue((key, histogram) -> csv.append(String.format(
+                       Locale.ROOT, "%s,%s,%s,%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                       key.tags().browser(), key.tags().provider(), key.tags().remote(), key.command(),
+                       histogram.getCount(), toMillis(histogram.getTotalMicros()),
+                       toMillis(histogram.getPercentileMicros(50)), toMillis(histogram.getPercentileMicros(95)),
+                       toMillis(histogram.getPercentileMicros(99)), toMillis(histogram.getMaxMicros())
+                   )));
+        aggregate.clear();
+        write(path, csv);
+        log.info("WebDriver commands' timings are saved into {}", path);
+    }
+
+    private static void write(final Path path, final CharSequence content) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, content, UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write commands' report into " + path, ex);
+        }
+    }
+
+    private static double toMillis(final long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Aggregate's identifier.
+     */
+    public record Key(MetricsSink.Tags tags, String command) {
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.sskorol.core;
+
+import lombok.Getter;
+import lombok.SneakyThrows;
+import one.util.streamex.StreamEx;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.CommandExecutor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Pre-linked WebDriver constructors. Driver class and its public constructors, which accept capabilities, are looked
+ * up only once, and the most specific constructor is cached per capabilities' type. So creating a new session
+ * doesn't involve any reflection calls.
+ */
+@SuppressWarnings("FinalLocalVariable")
+public class DriverConstructor {
+
+    private static final Map<Browser.Name, DriverConstructor> CONSTRUCTORS = new ConcurrentHashMap<>();
+    private static final MethodType LOCAL_TYPE = methodType(WebDriver.class, Capabilities.class);
+    private static final MethodType REMOTE_TYPE = methodType(WebDriver.class, URL.class, Capabilities.class);
+    private static final MethodType EXECUTOR_TYPE =
+        methodType(WebDriver.class, CommandExecutor.class, Capabilities.class);
+
+    @Getter
+    private final Class<? extends WebDriver> type;
+    private final ClassValue<MethodHandle> localConstructors;
+    private final ClassValue<MethodHandle> remoteConstructors;
+    private final ClassValue<MethodHandle> executorConstructors;
+
+    protected DriverConstructor(final Class<? extends WebDriver> type) {
+        this.type = type;
+        var constructors = StreamEx.of(type.getConstructors())
+                                   .sorted(Comparator.comparingInt(DriverConstructor::specificity).reversed())
+                                   .toList();
+        this.localConstructors = link(constructors, LOCAL_TYPE);
+        this.remoteConstructors = link(constructors, REMOTE_TYPE);
+        this.executorConstructors = link(constructors, EXECUTOR_TYPE);
+    }
+
+    /**
+     * @return cached constructors of a given browser's driver
+     * @throws IllegalStateException if driver class is not available on classpath
+     */
+    public static DriverConstructor of(final Browser.Name name) {
+        var constructor = CONSTRUCTORS.get(name);
+        return constructor != null ? constructor : CONSTRUCTORS.computeIfAbsent(name, DriverConstructor::load);
+    }
+
+    public static DriverConstructor of(final Class<? extends WebDriver> type) {
+        return new DriverConstructor(type);
+    }
+
+    @SneakyThrows
+    public WebDriver create(final Capabilities capabilities) {
+        return (WebDriver) localConstructors.get(capabilities.getClass()).invokeExact(capabilities);
+    }
+
+    @SneakyThrows
+    public WebDriver create(final URL url, final Capabilities capabilities) {
+        return (WebDriver) remoteConstructors.get(capabilities.getClass()).invokeExact(url, capabilities);
+    }
+
+    @SneakyThrows
+    public WebDriver create(final CommandExecutor executor, final Capabilities capabilities) {
+        return (WebDriver) executorConstructors.get(capabilities.getClass()).invokeExact(executor, capabilities);
+    }
+
+    private static DriverConstructor load(final Browser.Name name) {
+        try {
+            return of(Class.forName(name.getDriverClassName()).asSubclass(WebDriver.class));
+        } catch (ClassNotFoundException | LinkageError ex) {
+            throw new IllegalStateException("Unable to load " + name.getDriverClassName()
+                                            + ". Make sure corresponding selenium module is on classpath.", ex);
+        }
+    }
+
+    private ClassValue<MethodHandle> link(final List<Constructor<?>> constructors, final MethodType methodType) {
+        var parameters = methodType.parameterList();
+        var candidates = StreamEx.of(constructors)
+                                 .filter(c -> c.getParameterCount() == parameters.size())
+                                 .filter(c -> parameters.get(0) == Capabilities.class
+                                              || c.getParameterTypes()[0] == parameters.get(0))
+                                 .filter(c -> Capabilities.class.isAssignableFrom(lastParameter(c)))
+                                 .toList();
+        var handles = StreamEx.of(candidates).map(c -> unreflect(c, methodType)).toList();
+
+        return new ClassValue<>() {
+            @Override
+            protected MethodHandle computeValue(final Class<?> capabilitiesType) {
+                for (int i = 0; i < candidates.size(); i++) {
+                    if (lastParameter(candidates.get(i)).isAssignableFrom(capabilitiesType)) {
+                        return handles.get(i);
+                    }
+                }
+                throw new IllegalArgumentException(type.getName() + " has no public constructor, which accepts "
+                                                   + methodType.parameterList() + " of " + capabilitiesType.getName());
+            }
+        };
+    }
+
+    @SneakyThrows(IllegalAccessException.class)
+    private static MethodHandle unreflect(final Constructor<?> constructor, final MethodType methodType) {
+        return MethodHandles.publicLookup().unreflectConstructor(constructor).asType(methodType);
+    }
+
+    private static Class<?> lastParameter(final Constructor<?> constructor) {
+        var parameters = constructor.getParameterTypes();
+        return parameters[parameters.length - 1];
+    }
+
+    private static int specificity(final Constructor<?> constructor) {
+        var depth = 0;
+        if (constructor.getParameterCount() > 0) {
+            for (Class<?> c = lastParameter(constructor); c != null; c = c.getSuperclass()) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+}
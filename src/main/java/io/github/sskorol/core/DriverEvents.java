@@ -0,0 +1,106 @@
+package io.github.sskorol.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Objects;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+
+/**
+ * Java Flight Recorder events of browser sessions' lifecycle. Events are committed only when
+ * {@code wd.jfr.events} property is enabled, and a running recording has them turned on.
+ */
+public final class DriverEvents {
+
+    private DriverEvents() {
+        throw new UnsupportedOperationException("Illegal access to private constructor");
+    }
+
+    public static <T extends DriverEvent> T begin(final T event) {
+        if (WD_CONFIG.jfrEvents()) {
+            event.begin();
+        }
+        return event;
+    }
+
+    public static String sessionIdOf(final WebDriver driver) {
+        return driver instanceof RemoteWebDriver rwd ? Objects.toString(rwd.getSessionId(), null) : null;
+    }
+
+    /**
+     * Common fields, which link an event to a particular browser session and test.
+     */
+    @Category("WebDriver Supplier")
+    @StackTrace(false)
+    public abstract static class DriverEvent extends Event {
+
+        @Label("Browser")
+        protected String browser;
+
+        @Label("Provider")
+        protected String provider;
+
+        @Label("Session Id")
+        protected String sessionId;
+
+        @Label("Test Name")
+        protected String testName;
+
+        /**
+         * Ends and commits this event, if it's enabled.
+         */
+        public void complete(final MetricsSink.Tags tags, final String sessionId, final String testName) {
+            if (!WD_CONFIG.jfrEvents()) {
+                return;
+            }
+
+            end();
+            if (shouldCommit()) {
+                this.browser = tags.browser();
+                this.provider = tags.provider();
+                this.sessionId = sessionId;
+                this.testName = testName;
+                commit();
+            }
+        }
+    }
+
+    @Name("io.github.sskorol.DriverCreate")
+    @Label("Driver Create")
+    public static final class Create extends DriverEvent {
+    }
+
+    @Name("io.github.sskorol.CdpInit")
+    @Label("CDP Init")
+    public static final class CdpInit extends DriverEvent {
+    }
+
+    @Name("io.github.sskorol.ScreenshotCapture")
+    @Label("Screenshot Capture")
+    public static final class ScreenshotCapture extends DriverEvent {
+    }
+
+    @Name("io.github.sskorol.ScreenshotDispatch")
+    @Label("Screenshot Dispatch")
+    public static final class ScreenshotDispatch extends DriverEvent {
+
+        @Label("Consumer")
+        private String consumer;
+
+        public ScreenshotDispatch withConsumer(final String consumerName) {
+            this.consumer = consumerName;
+            return this;
+        }
+    }
+
+    @Name("io.github.sskorol.DriverQuit")
+    @Label("Driver Quit")
+    public static final class Quit extends DriverEvent {
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.sskorol.core;
+
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Broadcasts timings to all the loaded {@link MetricsSink}s. Sinks' failures are logged and never propagated.
+ */
+@Slf4j
+public class DriverMetrics implements MetricsSink {
+
+    public static final DriverMetrics DRIVER_METRICS = new DriverMetrics();
+
+    private final List<MetricsSink> sinks = new CopyOnWriteArrayList<>();
+
+    public void setSinks(final List<MetricsSink> sinks) {
+        this.sinks.clear();
+        this.sinks.addAll(sinks);
+    }
+
+    @Override
+    public void record(final Phase phase, final Tags tags, final long nanos) {
+        for (MetricsSink sink : sinks) {
+            Try.run(() -> sink.record(phase, tags, nanos))
+               .onFailure(ex -> log.warn("{} has failed to record {}", sink.getClass().getName(), phase, ex));
+        }
+    }
+
+    @Override
+    public void onFinish() {
+        for (MetricsSink sink : sinks) {
+            Try.run(sink::onFinish).onFailure(ex -> log.warn("{} has failed on finish", sink.getClass().getName(), ex));
+        }
+    }
+}
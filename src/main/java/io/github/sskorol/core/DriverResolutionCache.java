@@ -0,0 +1,222 @@
+package io.github.sskorol.core;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
+import io.github.sskorol.config.WebDriverConfig;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Optional.ofNullable;
+
+/**
+ * JVM-wide cache of WebDriverManager resolutions keyed by driver class and browser version. Concurrent callers
+ * of the same key wait for a single resolution. Each successful resolution is persisted into a local index, which is
+ * used instead of WebDriverManager in offline mode.
+ * <p>
+ * Driver services read binary's location from a JVM-wide system property. So drivers, which are created via
+ * {@link #create}, hold a per-property gate: sessions of the same binary start concurrently, while a different
+ * version of the same driver waits until they are constructed, and only then switches the property.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class DriverResolutionCache {
+
+    public static final DriverResolutionCache DRIVER_RESOLUTION_CACHE =
+        new DriverResolutionCache(WD_CONFIG, DriverResolutionCache::setup);
+
+    private static final String PROPERTY_SUFFIX = ".property";
+    private static final String PATH_SUFFIX = ".path";
+
+    private final Map<String, CompletableFuture<Resolution>> resolutions = new ConcurrentHashMap<>();
+    private final Map<String, PropertyGate> gates = new ConcurrentHashMap<>();
+    private final WebDriverConfig config;
+    private final BiFunction<Class<? extends WebDriver>, String, Resolution> resolver;
+
+    /**
+     * Resolves a driver binary, and points its system property to it. Property is switched only when no driver of
+     * another version of the same binary is being created via {@link #create}.
+     */
+    public Resolution resolve(final Class<? extends WebDriver> driverClass, final String browserVersion) {
+        var resolution = lookup(driverClass, browserVersion);
+        if (resolution.isComplete()) {
+            var gate = gateOf(resolution);
+            gate.enter(resolution);
+            gate.exit();
+        }
+        return resolution;
+    }
+
+    /**
+     * Resolves a driver binary, and calls a given factory, while the binary's system property points to it.
+     *
+     * @return factory's result
+     */
+    public <T> T create(final Class<? extends WebDriver> driverClass, final String browserVersion,
+                        final Supplier<T> factory) {
+        var resolution = lookup(driverClass, browserVersion);
+        if (!resolution.isComplete()) {
+            return factory.get();
+        }
+
+        var gate = gateOf(resolution);
+        gate.enter(resolution);
+        try {
+            return factory.get();
+        } finally {
+            gate.exit();
+        }
+    }
+
+    private Resolution lookup(final Class<? extends WebDriver> driverClass, final String browserVersion) {
+        var key = browserVersion.isEmpty() ? driverClass.getName() : driverClass.getName() + "@" + browserVersion;
+        var resolution = new CompletableFuture<Resolution>();
+        var existing = resolutions.putIfAbsent(key, resolution);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            var indexed = config.driverOffline() ? readIndex(key) : Optional.<Resolution>empty();
+            var result = indexed.orElseGet(() -> resolver.apply(driverClass, browserVersion));
+            if (indexed.isEmpty()) {
+                writeIndex(key, result);
+            }
+            resolution.complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            resolutions.remove(key, resolution);
+            resolution.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private PropertyGate gateOf(final Resolution resolution) {
+        return gates.computeIfAbsent(resolution.property(), property -> new PropertyGate());
+    }
+
+    private static Resolution setup(final Class<? extends WebDriver> driverClass, final String browserVersion) {
+        var manager = WebDriverManager.getInstance(driverClass).avoidExport();
+        if (!browserVersion.isEmpty()) {
+            manager.browserVersion(browserVersion);
+        }
+        manager.setup();
+        return new Resolution(
+            ofNullable(manager.getDriverManagerType()).map(DriverManagerType::browserProperty).orElse(null),
+            manager.getDownloadedDriverPath()
+        );
+    }
+
+    private Resolution join(final CompletableFuture<Resolution> resolution) {
+        try {
+            return resolution.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    private Optional<Resolution> readIndex(final String key) {
+        var index = loadIndex();
+        return ofNullable(index.getProperty(key + PATH_SUFFIX))
+            .filter(path -> Files.exists(Paths.get(path)))
+            .map(path -> new Resolution(index.getProperty(key + PROPERTY_SUFFIX), path));
+    }
+
+    private synchronized void writeIndex(final String key, final Resolution resolution) {
+        if (!resolution.isComplete()) {
+            return;
+        }
+
+        Try.run(() -> {
+            var indexPath = Paths.get(config.driverIndex()).toAbsolutePath();
+            var index = loadIndex();
+            index.setProperty(key + PROPERTY_SUFFIX, resolution.property());
+            index.setProperty(key + PATH_SUFFIX, resolution.path());
+            Files.createDirectories(indexPath.getParent());
+            var tmp = Files.createTempFile(indexPath.getParent(), "resolutions", ".tmp");
+            try (OutputStream output = Files.newOutputStream(tmp)) {
+                index.store(output, "WebDriver binaries resolved by webdriver-supplier");
+            }
+            Files.move(tmp, indexPath, ATOMIC_MOVE, REPLACE_EXISTING);
+        }).onFailure(ex -> log.warn("Unable to persist {} resolution into {}", key, config.driverIndex(), ex));
+    }
+
+    private Properties loadIndex() {
+        var index = new Properties();
+        var indexPath = Paths.get(config.driverIndex());
+        if (Files.exists(indexPath)) {
+            try (InputStream input = Files.newInputStream(indexPath)) {
+                index.load(input);
+            } catch (IOException ex) {
+                log.warn("Unable to read resolutions index {}", indexPath, ex);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Driver binary's location and a system property, which points WebDriver to it.
+     */
+    public record Resolution(String property, String path) {
+
+        public boolean isComplete() {
+            return property != null && path != null;
+        }
+
+        void apply() {
+            if (isComplete()) {
+                System.setProperty(property, path);
+            }
+        }
+    }
+
+    /**
+     * Lets any number of holders of the same binary path in, and applies a different path only when it's released.
+     */
+    private static final class PropertyGate {
+
+        private String path;
+        private int holders;
+
+        synchronized void enter(final Resolution resolution) {
+            while (holders > 0 && !resolution.path().equals(path)) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for " + resolution.property(), ex);
+                }
+            }
+            if (holders == 0) {
+                resolution.apply();
+                path = resolution.path();
+            }
+            holders++;
+        }
+
+        synchronized void exit() {
+            if (--holders == 0) {
+                notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.sskorol.core;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides browser session's {@link Scope} for all the methods of a test class.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DriverScope {
+
+    Scope value();
+}
@@ -0,0 +1,219 @@
+package io.github.sskorol.core;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Collects element lookups and state queries, and resolves them all in a single {@code executeScript} call, so
+ * that reading a page costs one round trip instead of a round trip per query. Locators are resolved in the document
+ * scope. Text and visibility follow WebDriver's semantics approximately: text is element's trimmed
+ * {@code innerText}, and element is displayed, if it has layout boxes and is not hidden via CSS visibility.
+ * <pre>{@code
+ * var batch = container.batch();
+ * var title = batch.text(By.cssSelector("h1"));
+ * var rows = batch.count(By.cssSelector("table tr"));
+ * var results = batch.execute();
+ * String text = results.get(title);
+ * }</pre>
+ */
+@SuppressWarnings("FinalLocalVariable")
+public final class ElementBatch {
+
+    private static final String SCRIPT = """
+        function find(using, value) {
+          switch (using) {
+            case 'css selector':
+              return Array.prototype.slice.call(document.querySelectorAll(value));
+            case 'tag name':
+              return Array.prototype.slice.call(document.getElementsByTagName(value));
+            case 'xpath':
+              var snapshot = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+              var nodes = [];
+              for (var i = 0; i < snapshot.snapshotLength; i++) {
+                nodes.push(snapshot.snapshotItem(i));
+              }
+              return nodes;
+            case 'link text':
+            case 'partial link text':
+              return Array.prototype.filter.call(document.getElementsByTagName('a'), function (link) {
+                var text = textOf(link);
+                return using === 'link text' ? text === value : text.indexOf(value) >= 0;
+              });
+          }
+          throw new Error('Unsupported locator strategy: ' + using);
+        }
+        function textOf(element) {
+          var text = typeof element.innerText === 'string' ? element.innerText : element.textContent;
+          return (text || '').trim();
+        }
+        function isDisplayed(element) {
+          return element.getClientRects().length > 0 && window.getComputedStyle(element).visibility !== 'hidden';
+        }
+        return arguments[0].map(function (query) {
+          var found = find(query[0], query[1]);
+          var first = found.length > 0 ? found[0] : null;
+          switch (query[2]) {
+            case 'element': return first;
+            case 'elements': return found;
+            case 'count': return found.length;
+            case 'present': return first !== null;
+            case 'text': return first && textOf(first);
+            case 'texts': return found.map(textOf);
+            case 'attribute': return first && first.getAttribute(query[3]);
+            case 'displayed': return first !== null && isDisplayed(first);
+            case 'enabled': return first !== null && !first.disabled;
+            case 'selected': return first !== null && !!(first.checked || first.selected);
+          }
+          throw new Error('Unsupported query: ' + query[2]);
+        });
+        """;
+
+    private final JavascriptExecutor executor;
+    private final List<List<Object>> queries = new ArrayList<>();
+    private final List<Function<Object, ?>> converters = new ArrayList<>();
+
+    public ElementBatch(final JavascriptExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return the first matching element, or null
+     */
+    public Query<WebElement> element(final By locator) {
+        return add(locator, "element", null, WebElement.class::cast);
+    }
+
+    public Query<List<WebElement>> elements(final By locator) {
+        return add(locator, "elements", null, ElementBatch::toList);
+    }
+
+    public Query<Integer> count(final By locator) {
+        return add(locator, "count", null, value -> ((Number) value).intValue());
+    }
+
+    public Query<Boolean> present(final By locator) {
+        return add(locator, "present", null, Boolean.TRUE::equals);
+    }
+
+    /**
+     * @return visible text of the first matching element, or null, if there's no such element
+     */
+    public Query<String> text(final By locator) {
+        return add(locator, "text", null, String.class::cast);
+    }
+
+    public Query<List<String>> texts(final By locator) {
+        return add(locator, "texts", null, ElementBatch::toList);
+    }
+
+    /**
+     * @return DOM attribute of the first matching element, or null, if there's no such element or attribute
+     */
+    public Query<String> attribute(final By locator, final String name) {
+        return add(locator, "attribute", name, String.class::cast);
+    }
+
+    public Query<Boolean> displayed(final By locator) {
+        return add(locator, "displayed", null, Boolean.TRUE::equals);
+    }
+
+    public Query<Boolean> enabled(final By locator) {
+        return add(locator, "enabled", null, Boolean.TRUE::equals);
+    }
+
+    public Query<Boolean> selected(final By locator) {
+        return add(locator, "selected", null, Boolean.TRUE::equals);
+    }
+
+    public int size() {
+        return queries.size();
+    }
+
+    /**
+     * Resolves all the added queries in a single round trip. Batch could be executed again to re-read the same state.
+     */
+    public Results execute() {
+        if (queries.isEmpty()) {
+            return new Results(this, List.of());
+        }
+
+        var values = executor.executeScript(SCRIPT, queries);
+        if (!(values instanceof List<?> list) || list.size() != queries.size()) {
+            throw new IllegalStateException("Unexpected batch response: " + values);
+        }
+
+        var results = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            results.add(converters.get(i).apply(list.get(i)));
+        }
+        return new Results(this, results);
+    }
+
+    private <T> Query<T> add(final By locator, final String kind, final String argument,
+                             final Function<Object, T> converter) {
+        var query = new ArrayList<>();
+        var parameters = toParameters(locator);
+        query.add(parameters.using());
+        query.add(parameters.value());
+        query.add(kind);
+        query.add(argument);
+        queries.add(Collections.unmodifiableList(query));
+        converters.add(converter);
+        return new Query<>(this, queries.size() - 1);
+    }
+
+    private static By.Remotable.Parameters toParameters(final By locator) {
+        if (locator instanceof By.Remotable remotable) {
+            return remotable.getRemoteParameters();
+        }
+        throw new IllegalArgumentException(locator + " can't be resolved in a batch. Use By.id, By.name, "
+                                           + "By.className, By.cssSelector, By.tagName, By.xpath or By.linkText.");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> toList(final Object value) {
+        return value == null ? List.of() : Collections.unmodifiableList((List<T>) value);
+    }
+
+    /**
+     * Typed handle of a single query's result.
+     */
+    public static final class Query<T> {
+
+        private final ElementBatch batch;
+        private final int index;
+
+        private Query(final ElementBatch batch, final int index) {
+            this.batch = batch;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Resolved values of a batch's queries.
+     */
+    public static final class Results {
+
+        private final ElementBatch batch;
+        private final List<Object> values;
+
+        private Results(final ElementBatch batch, final List<Object> values) {
+            this.batch = batch;
+            this.values = values;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(final Query<T> query) {
+            if (query.batch != batch || query.index >= values.size()) {
+                throw new IllegalArgumentException("Query doesn't belong to this batch");
+            }
+            return (T) values.get(query.index);
+        }
+    }
+}
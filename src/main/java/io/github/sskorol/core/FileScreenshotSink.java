@@ -0,0 +1,204 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static io.github.sskorol.utils.ConcurrencyUtils.daemonThreadFactory;
+import static io.github.sskorol.utils.TestNGUtils.getResultPath;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Built-in consumer, which stores screenshots into {@code wd.screenshot.dir}. Content is written once per unique
+ * SHA-256 hash into {@code objects} directory, and is linked into {@code suite/test/Class.method} directory of each
+ * test as {@code <start millis>-<index><extension>}. Resulting path is attached to {@link ITestResult} as
+ * {@value #SCREENSHOT_ATTRIBUTE} attribute on test's thread, so it's available to reporters even in async mode, while
+ * hashing and writing happen on dispatcher's thread. Content is written through a channel right from screenshot's
+ * buffer, and fsync, if enabled, is done in background.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class FileScreenshotSink implements ScreenshotStreamConsumer {
+
+    public static final String SCREENSHOT_ATTRIBUTE = "screenshot";
+
+    private static final String OBJECTS_DIR = "objects";
+
+    private final WebDriverConfig config;
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+    private final Set<Path> claimed = ConcurrentHashMap.newKeySet();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private ExecutorService flusher;
+
+    public FileScreenshotSink() {
+        this(WD_CONFIG);
+    }
+
+    @Override
+    public void prepare(final Screenshot screenshot, final ITestResult testResult) {
+        testResult.setAttribute(SCREENSHOT_ATTRIBUTE, targetOf(screenshot, testResult));
+    }
+
+    @Override
+    public void handle(final Screenshot screenshot, final ITestResult testResult) {
+        try {
+            var prepared = testResult.getAttribute(SCREENSHOT_ATTRIBUTE) instanceof Path path ? path : null;
+            var target = prepared != null ? prepared : targetOf(screenshot, testResult);
+            var hash = hash(screenshot.asByteBuffer());
+            var extension = extensionOf(screenshot.asByteBuffer());
+            var objects = Paths.get(config.screenshotDir()).toAbsolutePath().resolve(OBJECTS_DIR);
+            link(store(objects.resolve(hash.substring(0, 2)).resolve(hash + extension), hash, screenshot), target);
+            if (prepared == null) {
+                testResult.setAttribute(SCREENSHOT_ATTRIBUTE, target);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to store a screenshot of " + testResult.getName(), ex);
+        }
+    }
+
+    /**
+     * Waits until all the pending fsync calls are completed.
+     */
+    @Override
+    public void flush() {
+        ExecutorService pendingFlusher;
+        synchronized (this) {
+            pendingFlusher = flusher;
+            flusher = null;
+        }
+
+        ofNullable(pendingFlusher).ifPresent(f -> {
+            f.shutdown();
+            if (!Try.of(() -> f.awaitTermination(config.screenshotFlushTimeout(), SECONDS)).getOrElse(false)) {
+                log.warn("Screenshots were not synced to disk within {} sec", config.screenshotFlushTimeout());
+            }
+        });
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getDeduplicated() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * Index distinguishes screenshots of data-driven, repeated or retried invocations, which have started within
+     * the same millisecond. It's claimed atomically, as TestNG's invocation count is shared by parallel invocations.
+     */
+    private Path targetOf(final Screenshot screenshot, final ITestResult testResult) {
+        var directory = Paths.get(config.screenshotDir()).toAbsolutePath().resolve(getResultPath(testResult));
+        var name = testResult.getStartMillis() + "-";
+        var index = 0;
+        while (!claimed.add(directory.resolve(name + index))) {
+            index++;
+        }
+        return directory.resolve(name + index + extensionOf(screenshot.asByteBuffer()));
+    }
+
+    private Path store(final Path object, final String hash, final Screenshot screenshot) throws IOException {
+        if (stored.contains(hash) || Files.exists(object)) {
+            stored.add(hash);
+            deduplicated.increment();
+            return object;
+        }
+
+        Files.createDirectories(object.getParent());
+        var tmp = Files.createTempFile(object.getParent(), hash, ".tmp");
+        try (var channel = FileChannel.open(tmp, WRITE)) {
+            var content = screenshot.asByteBuffer();
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        } catch (IOException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        // Concurrent writers of the same content replace each other's identical object.
+        Files.move(tmp, object, ATOMIC_MOVE, REPLACE_EXISTING);
+        stored.add(hash);
+        written.increment();
+        if (config.screenshotFsync()) {
+            getFlusher().execute(() -> sync(object));
+        }
+        return object;
+    }
+
+    /**
+     * Hard link is preferred, as it survives objects' cleanup. Otherwise, symbolic link or a copy is created.
+     */
+    private Path link(final Path object, final Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.deleteIfExists(target);
+        try {
+            return Files.createLink(target, object);
+        } catch (IOException | UnsupportedOperationException | SecurityException ex) {
+            return Try.of(() -> Files.createSymbolicLink(target, target.getParent().relativize(object)))
+                      .getOrElseTry(() -> Files.copy(object, target, REPLACE_EXISTING));
+        }
+    }
+
+    private void sync(final Path object) {
+        try (var channel = FileChannel.open(object, WRITE)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            log.warn("Unable to sync {} to disk", object, ex);
+        }
+    }
+
+    private synchronized ExecutorService getFlusher() {
+        if (flusher == null) {
+            flusher = Executors.newSingleThreadExecutor(daemonThreadFactory("wd-screenshot-fsync"));
+        }
+        return flusher;
+    }
+
+    private static String hash(final ByteBuffer content) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String extensionOf(final ByteBuffer content) {
+        if (content.remaining() >= 12 && content.getInt(0) == 0x89504E47) {
+            return ".png";
+        }
+        if (content.remaining() >= 12 && (content.getShort(0) & 0xFFFF) == 0xFFD8) {
+            return ".jpg";
+        }
+        if (content.remaining() >= 12 && content.getInt(0) == 0x52494646 && content.getInt(8) == 0x57454250) {
+            return ".webp";
+        }
+        return ".bin";
+    }
+}
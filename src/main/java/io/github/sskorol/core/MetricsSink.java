@@ -0,0 +1,40 @@
+package io.github.sskorol.core;
+
+/**
+ * Special SPI, which receives timings of browser sessions' lifecycle phases. Note that {@link #record} is called
+ * on test threads, so implementations should avoid blocking.
+ */
+public interface MetricsSink {
+
+    /**
+     * Measured lifecycle phases. Note that driver creation includes screen resolution setup and admission wait.
+     */
+    enum Phase {
+        ADMISSION_WAIT,
+        CREATE_DRIVER,
+        SCREEN_RESOLUTION,
+        INIT_CDP,
+        SCREENSHOT,
+        VISUAL_DIFF,
+        QUIT
+    }
+
+    /**
+     * Dimensions each timing is tagged with.
+     */
+    record Tags(String browser, String provider, boolean remote) {
+
+        @Override
+        public String toString() {
+            return browser + "/" + provider + "/" + (remote ? "remote" : "local");
+        }
+    }
+
+    void record(Phase phase, Tags tags, long nanos);
+
+    /**
+     * Called once suite is finished.
+     */
+    default void onFinish() {
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.sskorol.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * {@link SessionReset} steps of a config property. Steps are parsed on the first call, and re-parsed only when
+ * property's value is changed, e.g. after config's reload.
+ */
+@SuppressWarnings("FinalLocalVariable")
+final class ResetSteps {
+
+    private final String property;
+    private final Supplier<List<String>> source;
+    private volatile Parsed parsed = new Parsed(List.of(), Set.of());
+
+    ResetSteps(final String property, final Supplier<List<String>> source) {
+        this.property = property;
+        this.source = source;
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the property, if there's an unknown step
+     */
+    Set<SessionReset> get() {
+        var values = source.get();
+        var current = parsed;
+        if (!current.values().equals(values)) {
+            current = new Parsed(List.copyOf(values), parse(values));
+            parsed = current;
+        }
+        return current.steps();
+    }
+
+    private Set<SessionReset> parse(final List<String> values) {
+        try {
+            return Collections.unmodifiableSet(SessionReset.parse(values));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid " + property + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private record Parsed(List<String> values, Set<SessionReset> steps) {
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.sskorol.core;
+
+import lombok.extern.slf4j.Slf4j;
+import one.util.streamex.StreamEx;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.sskorol.core.WebDriverProvider.WDP_DEFAULT;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Immutable lookup tables of loaded SPI implementations. Built once, when service providers are loaded, so that
+ * neither browser, nor provider is searched for on each test. Duplicate and ambiguous registrations are reported
+ * at build time. In such case the first registered implementation wins.
+ */
+@Slf4j
+@SuppressWarnings("FinalLocalVariable")
+public final class RoutingTable {
+
+    public static final RoutingTable EMPTY = new RoutingTable(Map.of(), Optional.empty());
+
+    private final Map<String, Browser> browsers;
+    private final Optional<WebDriverProvider> provider;
+
+    private RoutingTable(final Map<String, Browser> browsers, final Optional<WebDriverProvider> provider) {
+        this.browsers = browsers;
+        this.provider = provider;
+    }
+
+    public static RoutingTable of(final List<Browser> browsers, final List<WebDriverProvider> providers) {
+        return new RoutingTable(indexBrowsers(browsers), chooseProvider(providers));
+    }
+
+    public Optional<Browser> getBrowser(final String browserName) {
+        return ofNullable(browserName).map(browsers::get);
+    }
+
+    public Optional<WebDriverProvider> getProvider() {
+        return provider;
+    }
+
+    private static Map<String, Browser> indexBrowsers(final List<Browser> browsers) {
+        var byName = new EnumMap<Browser.Name, Browser>(Browser.Name.class);
+        StreamEx.of(browsers).forEach(browser -> {
+            var registered = byName.putIfAbsent(browser.name(), browser);
+            if (registered != null) {
+                log.warn("{} and {} are both registered for {} browser. The former one will be used.",
+                         registered.getClass().getName(), browser.getClass().getName(), browser.name());
+            }
+        });
+
+        var index = new HashMap<String, Browser>();
+        byName.forEach((name, browser) -> index.put(name.getBrowserName(), browser));
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Default provider is used only when it's the only one registered. Otherwise, a custom provider takes precedence.
+     */
+    private static Optional<WebDriverProvider> chooseProvider(final List<WebDriverProvider> providers) {
+        var customProviders = StreamEx.of(providers).remove(p -> WDP_DEFAULT.equals(p.label())).toList();
+        StreamEx.of(providers)
+                .groupingBy(WebDriverProvider::label)
+                .forEach((label, registered) -> {
+                    if (registered.size() > 1) {
+                        log.warn("{} providers are registered with the same label: {}", registered.size(), label);
+                    }
+                });
+
+        if (providers.size() == 1) {
+            if (customProviders.isEmpty()) {
+                return Optional.of(providers.get(0));
+            }
+            log.warn("{} can't be used without a default provider registered", providers.get(0).getClass().getName());
+            return Optional.empty();
+        }
+
+        if (customProviders.isEmpty()) {
+            if (!providers.isEmpty()) {
+                log.warn("Unable to choose between {} default providers", providers.size());
+            }
+            return Optional.empty();
+        }
+
+        if (customProviders.size() > 1) {
+            log.warn("Ambiguous custom providers: {}. The first one will be used.",
+                     StreamEx.of(customProviders).map(WebDriverProvider::label).joining(", "));
+        }
+        return Optional.of(customProviders.get(0));
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.sskorol.core;
+
+import one.util.streamex.StreamEx;
+import org.testng.xml.XmlTest;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * Browser session's lifecycle. A single session spans all the methods of a scope, and is reset between them.
+ */
+public enum Scope {
+    METHOD,
+    CLASS,
+    TEST,
+    SUITE;
+
+    /**
+     * @throws IllegalArgumentException naming the value, if it's not a known scope
+     */
+    public static Scope of(final String value) {
+        return StreamEx.of(values())
+                       .findFirst(scope -> scope.name().equalsIgnoreCase(value.trim()))
+                       .orElseThrow(() -> new IllegalArgumentException(String.format(
+                           "Unknown driver scope '%s', expected one of %s", value,
+                           StreamEx.of(values()).map(scope -> scope.name().toLowerCase(ROOT)).toList()
+                       )));
+    }
+
+    /**
+     * @return identifier of a particular scope instance, e.g. a class within xml test, or null for method scope,
+     *     as its sessions are never shared
+     */
+    public String getId(final XmlTest xmlTest, final Class<?> testClass) {
+        return switch (this) {
+            case METHOD -> null;
+            case CLASS -> xmlTest.getSuite().getName() + "/" + xmlTest.getName() + "/" + testClass.getName();
+            case TEST -> xmlTest.getSuite().getName() + "/" + xmlTest.getName();
+            case SUITE -> xmlTest.getSuite().getName();
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.config.XmlConfig;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import one.util.streamex.StreamEx;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Keeps browser sessions of class, test or suite {@link Scope}s. Released session is reset and retained until its
+ * scope is closed. Methods of the same scope, which run in parallel, get separate sessions.
+ */
+@Slf4j
+@SuppressWarnings("FinalLocalVariable")
+public class ScopedSessions {
+
+    private final Map<String, Map<String, Deque<WebDriverContainer>>> scopes = new ConcurrentHashMap<>();
+    private final Consumer<WebDriverContainer> disposer;
+    private final ResetSteps resetSteps;
+
+    public ScopedSessions(final WebDriverConfig config, final Consumer<WebDriverContainer> disposer) {
+        this.disposer = disposer;
+        this.resetSteps = new ResetSteps("wd.scope.reset", config::scopeReset);
+    }
+
+    /**
+     * Checks scopes' settings on suite start, so that misconfiguration is reported once, instead of disposing
+     * every released session.
+     *
+     * @throws IllegalArgumentException if wd.scope.reset contains an unknown step
+     */
+    public void validate() {
+        resetSteps.get();
+    }
+
+    public Optional<WebDriverContainer> acquire(final String scopeId, final XmlConfig xmlConfig) {
+        return ofNullable(scopes.get(scopeId))
+            .map(sessions -> sessions.get(xmlConfig.getSessionKey()))
+            .map(Deque::pollFirst)
+            .map(container -> container.reuse(xmlConfig));
+    }
+
+    /**
+     * Resets and retains a session till the end of its scope. Session, which can't be reset, is disposed.
+     */
+    public void release(final String scopeId, final WebDriverContainer container) {
+        var driver = container.getWebDriver();
+        var steps = Try.of(resetSteps::get).onFailure(ex -> log.error("Session can't be kept within its scope", ex));
+        if (steps.isFailure() || Try.run(() -> steps.get().forEach(step -> step.apply(driver))).isFailure()) {
+            disposer.accept(container);
+            return;
+        }
+
+        scopes.computeIfAbsent(scopeId, id -> new ConcurrentHashMap<>())
+              .computeIfAbsent(container.getConfig().getSessionKey(), key -> new ConcurrentLinkedDeque<>())
+              .offerFirst(container);
+    }
+
+    /**
+     * Disposes all the sessions of a finished scope.
+     */
+    public void close(final String scopeId) {
+        ofNullable(scopes.remove(scopeId)).ifPresent(this::dispose);
+    }
+
+    public void closeAll() {
+        StreamEx.ofKeys(scopes).toList().forEach(this::close);
+    }
+
+    public int size() {
+        return StreamEx.of(scopes.values()).flatCollection(Map::values).mapToInt(Deque::size).sum();
+    }
+
+    private void dispose(final Map<String, Deque<WebDriverContainer>> sessions) {
+        StreamEx.of(sessions.values()).forEach(deque -> {
+            WebDriverContainer container;
+            while ((container = deque.pollFirst()) != null) {
+                disposer.accept(container);
+            }
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.cdt.protocol.events.page.ScreencastFrame;
+import io.github.sskorol.cdt.protocol.support.types.EventListener;
+import io.github.sskorol.cdt.protocol.types.page.StartScreencastFormat;
+import io.github.sskorol.cdt.services.ChromeDevToolsService;
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.utils.FrameBuffer;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static io.github.sskorol.utils.ConcurrencyUtils.daemonThreadFactory;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Records DevTools screencast frames of a single test into a {@link FrameBuffer}. Only the last wd.screencast.window
+ * seconds are recorded, while heap usage is bounded by wd.screencast.max.size megabytes: without new frames, stale ones
+ * are released only on stop. Frames are written to disk only if the test has failed, along with ffmpeg's concat list,
+ * which allows converting them into a video.
+ */
+@Slf4j
+@SuppressWarnings("FinalLocalVariable")
+public class ScreencastRecorder {
+
+    // Frames are acknowledged off the websocket's thread, as blocking commands can't be sent from event handlers.
+    // Each session waits for its ack before sending the next frame, so a few threads serve all sessions.
+    private static final int ACK_THREADS = 4;
+    private static final int ACK_QUEUE_SIZE = 1024;
+    private static final ThreadPoolExecutor ACKNOWLEDGEMENTS = createAcknowledgements();
+
+    private final ChromeDevToolsService devTools;
+    private final WebDriverConfig config;
+    private final FrameBuffer frames;
+    private final EventListener listener;
+
+    private ScreencastRecorder(final ChromeDevToolsService devTools, final WebDriverConfig config) {
+        this.devTools = devTools;
+        this.config = config;
+        this.frames = new FrameBuffer(SECONDS.toNanos(config.screencastWindow()),
+                                      config.screencastMaxSize() * 1024L * 1024L);
+        this.listener = devTools.getPage().onScreencastFrame(this::onFrame);
+    }
+
+    /**
+     * @throws IllegalStateException if DevTools connection can't be established
+     */
+    public static ScreencastRecorder start(final ChromeDevToolsService devTools, final WebDriverConfig config) {
+        var recorder = new ScreencastRecorder(devTools, config);
+        try {
+            devTools.getPage().startScreencast(
+                StartScreencastFormat.valueOf(config.screencastFormat().toUpperCase(Locale.ROOT)),
+                config.screencastQuality(),
+                positiveOrNull(config.screencastMaxWidth()),
+                positiveOrNull(config.screencastMaxHeight()),
+                positiveOrNull(config.screencastEveryNthFrame())
+            );
+        } catch (RuntimeException ex) {
+            Try.run(recorder.listener::unsubscribe);
+            throw ex;
+        }
+        return recorder;
+    }
+
+    /**
+     * Stops recording and releases buffered frames.
+     *
+     * @return directory with frames, if test has failed
+     */
+    public Optional<Path> stop(final ITestResult testResult) {
+        Try.run(listener::unsubscribe);
+        Try.run(() -> devTools.getPage().stopScreencast())
+           .onFailure(ex -> log.debug("Unable to stop screencast", ex));
+        var recorded = frames.drain(System.nanoTime());
+        if (testResult.getStatus() != ITestResult.FAILURE || recorded.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Try.of(() -> write(recorded, testResult))
+                  .onFailure(ex -> log.warn("Unable to save screencast of {}", testResult.getName(), ex))
+                  .toJavaOptional();
+    }
+
+    public int getBufferedFrames() {
+        return frames.size();
+    }
+
+    private void onFrame(final ScreencastFrame frame) {
+        ACKNOWLEDGEMENTS.execute(() -> Try.run(() -> devTools.getPage().screencastFrameAck(frame.getSessionId())));
+        frames.add(System.nanoTime(), Base64.getDecoder().decode(frame.getData()));
+    }
+
+    private Path write(final List<FrameBuffer.Frame> recorded, final ITestResult testResult) throws IOException {
+        var extension = config.screencastFormat().toLowerCase(Locale.ROOT).replace("jpeg", "jpg");
+        var directory = Files.createDirectories(Paths.get(
+            config.screencastDir(),
+            testResult.getName().replaceAll("[^A-Za-z0-9._-]", "_") + "-" + System.currentTimeMillis()
+        ));
+        var concat = new StringBuilder("ffconcat version 1.0\n");
+        for (int i = 0; i < recorded.size(); i++) {
+            var name = String.format("frame-%05d.%s", i, extension);
+            Files.write(directory.resolve(name), recorded.get(i).data());
+            var duration = i + 1 < recorded.size()
+                           ? recorded.get(i + 1).timestamp() - recorded.get(i).timestamp()
+                           : MILLISECONDS.toNanos(100);
+            concat.append("file ").append(name).append('\n')
+                  .append(String.format(Locale.ROOT, "duration %.3f%n", duration / (double) SECONDS.toNanos(1)));
+        }
+        Files.writeString(directory.resolve("frames.ffconcat"), concat, UTF_8);
+        log.info("Screencast of {} is saved into {}", testResult.getName(), directory);
+        return directory;
+    }
+
+    private static ThreadPoolExecutor createAcknowledgements() {
+        var executor = new ThreadPoolExecutor(
+            ACK_THREADS, ACK_THREADS, 60L, SECONDS,
+            new ArrayBlockingQueue<>(ACK_QUEUE_SIZE),
+            daemonThreadFactory("wd-screencast"),
+            (task, workers) -> log.debug("Screencast frame acknowledgement is dropped due to a full queue")
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static Integer positiveOrNull(final int value) {
+        return value > 0 ? value : null;
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.sskorol.core;
+
+import org.openqa.selenium.OutputType;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Read-only screenshot's content. Base64 response of WebDriver or DevTools is decoded chunk by chunk straight into
+ * a single array of the exact decoded size, without an intermediate copy of the whole encoded string. The same array
+ * is shared by stream consumers and legacy {@link ScreenshotConsumer}s, and is reclaimed by a regular GC as soon as
+ * the last consumer is done with it.
+ */
+@SuppressWarnings("FinalLocalVariable")
+public final class Screenshot {
+
+    /**
+     * Could be passed to {@code TakesScreenshot.getScreenshotAs}.
+     */
+    public static final OutputType<Screenshot> OUTPUT_TYPE = new OutputType<>() {
+        @Override
+        public Screenshot convertFromBase64Png(final String base64Png) {
+            return fromBase64(base64Png);
+        }
+
+        @Override
+        public Screenshot convertFromPngBytes(final byte[] png) {
+            return of(png);
+        }
+    };
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final long PNG_SIGNATURE = 0x89504E470D0A1A0AL;
+
+    private final ByteBuffer content;
+    private final byte[] array;
+
+    private Screenshot(final byte[] array) {
+        this.content = ByteBuffer.wrap(array).asReadOnlyBuffer();
+        this.array = array;
+    }
+
+    /**
+     * Wraps a given array without copying.
+     */
+    public static Screenshot of(final byte[] content) {
+        return new Screenshot(content);
+    }
+
+    public static Screenshot fromBase64(final String base64) {
+        try {
+            return of(decode(base64));
+        } catch (IllegalArgumentException ex) {
+            // Line-wrapped content can't be decoded by chunks.
+            return of(Base64.getMimeDecoder().decode(base64));
+        }
+    }
+
+    public int size() {
+        return content.remaining();
+    }
+
+    /**
+     * @return true, if content starts with PNG signature
+     */
+    public boolean isPng() {
+        return content.remaining() >= 8 && content.getLong(content.position()) == PNG_SIGNATURE;
+    }
+
+    /**
+     * @return read-only view with its own position, so that consumers don't interfere with each other
+     */
+    public ByteBuffer asByteBuffer() {
+        return content.duplicate();
+    }
+
+    public InputStream openStream() {
+        var source = asByteBuffer();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return source.hasRemaining() ? source.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(final byte[] target, final int offset, final int length) {
+                if (!source.hasRemaining()) {
+                    return -1;
+                }
+                var count = Math.min(length, source.remaining());
+                source.get(target, offset, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return source.remaining();
+            }
+        };
+    }
+
+    /**
+     * @return underlying array, shared by all the callers, so it should not be modified
+     */
+    public byte[] toByteArray() {
+        return array;
+    }
+
+    private static byte[] decode(final String base64) {
+        var length = base64.length();
+        var padding = length > 0 && base64.charAt(length - 1) == '='
+                      ? (length > 1 && base64.charAt(length - 2) == '=' ? 2 : 1)
+                      : 0;
+        var content = new byte[(int) ((length - padding) * 3L / 4)];
+        var decoder = Base64.getDecoder();
+        var encoded = new byte[CHUNK_SIZE];
+        var decoded = new byte[CHUNK_SIZE / 4 * 3];
+        var position = 0;
+        for (int offset = 0; offset < length; offset += CHUNK_SIZE) {
+            var size = Math.min(CHUNK_SIZE, length - offset);
+            var chunk = size == CHUNK_SIZE ? encoded : new byte[size];
+            for (int i = 0; i < size; i++) {
+                chunk[i] = (byte) base64.charAt(offset + i);
+            }
+            var count = decoder.decode(chunk, decoded);
+            if (position + count > content.length) {
+                throw new IllegalArgumentException("Unexpected padding of base64 content");
+            }
+            System.arraycopy(decoded, 0, content, position, count);
+            position += count;
+        }
+        return position == content.length ? content : Arrays.copyOf(content, position);
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.cdt.protocol.types.page.CaptureScreenshotFormat;
+import io.github.sskorol.cdt.protocol.types.page.Viewport;
+import io.github.sskorol.cdt.services.ChromeDevToolsService;
+import io.github.sskorol.config.WebDriverConfig;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.TakesScreenshot;
+
+import java.util.Locale;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static io.github.sskorol.utils.StringUtils.toRectangle;
+
+/**
+ * Takes screenshots either via WebDriver, or via DevTools' Page.captureScreenshot command. The latter supports
+ * JPEG / WebP formats, quality, clip region and full page capture, which makes screenshots several times smaller.
+ * DevTools mode is used only for {@link CDP} browsers. Otherwise, or if DevTools call fails, WebDriver is used.
+ * In both cases base64 response is decoded by chunks into a {@link Screenshot}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class ScreenshotCapture {
+
+    public static final ScreenshotCapture SCREENSHOT_CAPTURE = new ScreenshotCapture(WD_CONFIG);
+
+    private static final String CDP_MODE = "cdp";
+
+    private final WebDriverConfig config;
+
+    public Screenshot capture(final WebDriverContainer container) {
+        if (CDP_MODE.equalsIgnoreCase(config.screenshotMode()) && container.isDevToolsSupported()) {
+            return Try.of(() -> captureViaDevTools(container.getDevToolsService()))
+                      .onFailure(ex -> log.warn("Unable to take a screenshot via DevTools", ex))
+                      .getOrElse(() -> captureViaWebDriver(container));
+        }
+        return captureViaWebDriver(container);
+    }
+
+    public Screenshot captureViaDevTools(final ChromeDevToolsService devTools) {
+        var page = devTools.getPage();
+        var format = CaptureScreenshotFormat.valueOf(config.screenshotFormat().toUpperCase(Locale.ROOT));
+        var quality = format == CaptureScreenshotFormat.PNG ? null : config.screenshotQuality();
+        var clip = toRectangle(config.screenshotClip())
+            .map(r -> viewport(r.getX(), r.getY(), r.getWidth(), r.getHeight()))
+            .orElse(null);
+        if (clip == null && config.screenshotFullPage()) {
+            var contentSize = page.getLayoutMetrics().getCssContentSize();
+            clip = viewport(0, 0, contentSize.getWidth(), contentSize.getHeight());
+        }
+        return Screenshot.fromBase64(page.captureScreenshot(format, quality, clip, true, config.screenshotFullPage()));
+    }
+
+    private Screenshot captureViaWebDriver(final WebDriverContainer container) {
+        return ((TakesScreenshot) container.getWebDriver()).getScreenshotAs(Screenshot.OUTPUT_TYPE);
+    }
+
+    private static Viewport viewport(final double x, final double y, final double width, final double height) {
+        var viewport = new Viewport();
+        viewport.setX(x);
+        viewport.setY(y);
+        viewport.setWidth(width);
+        viewport.setHeight(height);
+        viewport.setScale(1.0);
+        return viewport;
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.utils.LatencyStats;
+import io.vavr.control.Try;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.util.streamex.EntryStream;
+import one.util.streamex.StreamEx;
+import org.testng.ITestResult;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.github.sskorol.utils.ConcurrencyUtils.daemonThreadFactory;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Delivers screenshots to {@link ScreenshotStreamConsumer}s either on a test thread, or on a bounded pool of background
+ * workers. In the latter case, a full queue is handled according to {@link Overflow} policy.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class ScreenshotDispatcher {
+
+    /**
+     * Defines what happens when there's no more room for a new screenshot in a queue.
+     */
+    public enum Overflow {
+        BLOCK,
+        DROP_OLDEST,
+        CALLER_RUNS
+    }
+
+    private static final MetricsSink.Tags UNKNOWN_SESSION = new MetricsSink.Tags(null, null, false);
+
+    private final WebDriverConfig config;
+    private final Map<String, LatencyStats> consumerStats = new ConcurrentHashMap<>();
+    private final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder dropped = new LongAdder();
+    private ThreadPoolExecutor executor;
+
+    public void dispatch(
+        final byte[] screenshot,
+        final ITestResult testResult,
+        final List<ScreenshotConsumer> consumers
+    ) {
+        dispatch(screenshot, testResult, consumers, UNKNOWN_SESSION);
+    }
+
+    public void dispatch(
+        final byte[] screenshot,
+        final ITestResult testResult,
+        final List<ScreenshotConsumer> consumers,
+        final MetricsSink.Tags tags
+    ) {
+        var adapters = StreamEx.of(consumers).map(ScreenshotStreamConsumer::of).toList();
+        dispatch(Screenshot.of(screenshot), testResult, adapters, tags);
+    }
+
+    /**
+     * All the consumers share the same read-only content, so a screenshot is never copied during delivery.
+     */
+    public void dispatch(
+        final Screenshot screenshot,
+        final ITestResult testResult,
+        final List<ScreenshotStreamConsumer> consumers,
+        final MetricsSink.Tags tags
+    ) {
+        StreamEx.of(consumers).forEach(consumer -> Try.run(() -> consumer.prepare(screenshot, testResult))
+            .onFailure(ex -> log.warn("{} has failed to prepare a screenshot", consumer.name(), ex)));
+        if (config.screenshotAsync()) {
+            var workers = getExecutor();
+            StreamEx.of(consumers)
+                    .forEach(consumer -> workers.execute(() -> handle(consumer, screenshot, testResult, tags)));
+            maxQueueDepth.accumulate(workers.getQueue().size());
+        } else {
+            StreamEx.of(consumers).forEach(consumer -> handle(consumer, screenshot, testResult, tags));
+        }
+    }
+
+    /**
+     * Waits until all the queued screenshots are delivered.
+     */
+    public void flush() {
+        ThreadPoolExecutor pendingExecutor;
+        synchronized (this) {
+            pendingExecutor = executor;
+            executor = null;
+        }
+
+        ofNullable(pendingExecutor).ifPresent(e -> {
+            e.shutdown();
+            if (!Try.of(() -> e.awaitTermination(config.screenshotFlushTimeout(), SECONDS)).getOrElse(false)) {
+                log.warn("{} screenshots were not delivered within {} sec", e.getQueue().size() + e.getActiveCount(),
+                         config.screenshotFlushTimeout());
+            }
+        });
+
+        EntryStream.of(consumerStats).forKeyValue((consumer, stats) -> log.info("{}: {}", consumer, stats));
+        if (getDropped() > 0) {
+            log.warn("{} screenshots were dropped due to a full queue", getDropped());
+        }
+    }
+
+    public Map<String, LatencyStats> getConsumerStats() {
+        return unmodifiableMap(consumerStats);
+    }
+
+    public synchronized int getQueueDepth() {
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void handle(
+        final ScreenshotStreamConsumer consumer,
+        final Screenshot screenshot,
+        final ITestResult testResult,
+        final MetricsSink.Tags tags
+    ) {
+        var event = DriverEvents.begin(new DriverEvents.ScreenshotDispatch().withConsumer(consumer.name()));
+        var start = System.nanoTime();
+        var result = Try.run(() -> consumer.handle(screenshot, testResult))
+                        .onFailure(ex -> log.warn("{} has failed to handle a screenshot",
+                                                  consumer.name(), ex));
+        consumerStats.computeIfAbsent(consumer.name(), name -> new LatencyStats())
+                     .record(System.nanoTime() - start, result.isFailure());
+        event.complete(tags, ofNullable(testResult.getAttribute("sessionId")).map(Object::toString).orElse(null),
+                       testResult.getName());
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            var threads = config.screenshotThreads();
+            executor = new ThreadPoolExecutor(
+                threads, threads, 0L, SECONDS,
+                new ArrayBlockingQueue<>(config.screenshotQueueSize()),
+                daemonThreadFactory("wd-screenshot"),
+                getOverflowHandler()
+            );
+        }
+        return executor;
+    }
+
+    private RejectedExecutionHandler getOverflowHandler() {
+        return switch (Overflow.valueOf(config.screenshotOverflow().trim().toUpperCase(Locale.ROOT))) {
+            case BLOCK -> (task, workers) -> {
+                if (workers.isShutdown()) {
+                    task.run();
+                    return;
+                }
+                try {
+                    workers.getQueue().put(task);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    task.run();
+                    return;
+                }
+                // Executor could be flushed while waiting for a free slot, so that nobody would take the task.
+                if (workers.isShutdown() && workers.getQueue().remove(task)) {
+                    task.run();
+                }
+            };
+            case DROP_OLDEST -> (task, workers) -> {
+                if (workers.isShutdown()) {
+                    dropped.increment();
+                    log.warn("Screenshot is dropped, as dispatcher has been already flushed");
+                    return;
+                }
+                ofNullable(workers.getQueue().poll()).ifPresent(oldest -> dropped.increment());
+                workers.execute(task);
+            };
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.sskorol.core;
+
+import org.testng.ITestResult;
+
+/**
+ * Special SPI, which receives a read-only view of a screenshot instead of a heap array. Content could be read via
+ * {@link Screenshot#asByteBuffer()} or {@link Screenshot#openStream()}, and written to a channel without copying.
+ */
+public interface ScreenshotStreamConsumer {
+
+    void handle(Screenshot screenshot, ITestResult testResult);
+
+    /**
+     * Called on test's thread right before a screenshot is queued, even in async mode. Allows attaching attributes,
+     * which reporters read as soon as test is finished. Should be cheap, as it delays test's completion.
+     */
+    default void prepare(final Screenshot screenshot, final ITestResult testResult) {
+    }
+
+    /**
+     * @return name, which is used in statistics and JFR events
+     */
+    default String name() {
+        return getClass().getName();
+    }
+
+    /**
+     * Called on suite finish, when all the screenshots are delivered.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Adapts a legacy consumer. Screenshot's underlying array is passed as is, and is shared by all adapters.
+     */
+    static ScreenshotStreamConsumer of(final ScreenshotConsumer consumer) {
+        return new ScreenshotStreamConsumer() {
+            @Override
+            public void handle(final Screenshot screenshot, final ITestResult testResult) {
+                consumer.handle(screenshot.toByteArray(), testResult);
+            }
+
+            @Override
+            public String name() {
+                return consumer.getClass().getName();
+            }
+        };
+    }
+}
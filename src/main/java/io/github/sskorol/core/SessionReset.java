@@ -0,0 +1,64 @@
+package io.github.sskorol.core;
+
+import lombok.RequiredArgsConstructor;
+import one.util.streamex.StreamEx;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Steps, which are applied to a pooled session before handing it over to the next test.
+ * Note that steps are always executed in declaration order, so windows are reset last.
+ */
+@RequiredArgsConstructor
+public enum SessionReset {
+    COOKIES(driver -> driver.manage().deleteAllCookies()),
+    STORAGE(driver -> {
+        if (driver instanceof JavascriptExecutor js) {
+            js.executeScript("try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        }
+    }),
+    WINDOWS(driver -> {
+        var handles = driver.getWindowHandles();
+        if (handles.size() > 1) {
+            var windows = new ArrayList<>(handles);
+            StreamEx.of(windows).skip(1).forEach(handle -> driver.switchTo().window(handle).close());
+            driver.switchTo().window(windows.get(0));
+        }
+        driver.get("about:blank");
+    });
+
+    private final Consumer<WebDriver> action;
+
+    public void apply(final WebDriver driver) {
+        action.accept(driver);
+    }
+
+    /**
+     * @throws IllegalArgumentException if there's an unknown step
+     */
+    public static Set<SessionReset> parse(final Collection<String> values) {
+        var steps = EnumSet.noneOf(SessionReset.class);
+        StreamEx.of(values)
+                .map(String::trim)
+                .remove(String::isEmpty)
+                .map(SessionReset::of)
+                .forEach(steps::add);
+        return steps;
+    }
+
+    private static SessionReset of(final String value) {
+        return StreamEx.of(values())
+                       .findFirst(step -> step.name().equalsIgnoreCase(value))
+                       .orElseThrow(() -> new IllegalArgumentException(String.format(
+                           "Unknown session reset step '%s', expected one of %s", value,
+                           StreamEx.of(values()).map(step -> step.name().toLowerCase(Locale.ROOT)).toList()
+                       )));
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.config.WebDriverConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.util.streamex.StreamEx;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Retries failed session creation with exponential backoff and jitter. Each endpoint is guarded by its own
+ * {@link CircuitBreaker}, so that tests fail fast while the endpoint is down, instead of waiting for connect timeouts.
+ * Only transient failures are retried and counted by a breaker: transport errors, timeouts, and errors which message
+ * contains one of wd.retry.on fragments, e.g. grid's full queue. Other ones, like a browser / driver version mismatch,
+ * fail immediately and leave breaker's state untouched, as they don't tell whether the endpoint is healthy.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class SessionRetry {
+
+    public static final SessionRetry SESSION_RETRY = new SessionRetry(WD_CONFIG);
+
+    private static final int MAX_CAUSES = 16;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final WebDriverConfig config;
+
+    /**
+     * @param endpoint provider and grid url, or local browser name, which failures are tracked by
+     * @throws IllegalStateException if endpoint's circuit is open
+     */
+    public WebDriver create(final String endpoint, final Supplier<WebDriver> factory) {
+        var breaker = getBreaker(endpoint);
+        var attempts = Math.max(1, config.retryAttempts());
+        for (int attempt = 1; ; attempt++) {
+            if (!breaker.tryAcquire()) {
+                throw new IllegalStateException("Circuit of " + endpoint + " is open: new sessions are not requested "
+                                                + "for " + config.breakerOpenDuration() + " sec after failures");
+            }
+
+            try {
+                var driver = factory.get();
+                breaker.onSuccess();
+                return driver;
+            } catch (RuntimeException ex) {
+                if (!isTransient(ex)) {
+                    breaker.release();
+                    throw ex;
+                }
+                breaker.onFailure();
+                if (attempt >= attempts || breaker.getState() == CircuitBreaker.State.OPEN) {
+                    throw ex;
+                }
+                var delay = backoff(attempt);
+                log.warn("Unable to create a session of {} (attempt {} of {}). Retrying in {} ms.",
+                         endpoint, attempt, attempts, delay, ex);
+                sleep(delay, ex);
+            }
+        }
+    }
+
+    public CircuitBreaker getBreaker(final String endpoint) {
+        return breakers.computeIfAbsent(endpoint, key -> new CircuitBreaker(
+            config.breakerThreshold(), SECONDS.toNanos(config.breakerOpenDuration()), System::nanoTime
+        ));
+    }
+
+    private boolean isTransient(final Throwable error) {
+        var depth = 0;
+        for (Throwable cause = error; cause != null && depth++ < MAX_CAUSES; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof UnreachableBrowserException
+                || cause instanceof TimeoutException || cause instanceof java.util.concurrent.TimeoutException) {
+                return true;
+            }
+
+            var message = ofNullable(cause.getMessage()).map(text -> text.toLowerCase(Locale.ROOT)).orElse("");
+            if (StreamEx.of(config.retryOn()).map(String::trim).remove(String::isEmpty)
+                        .anyMatch(fragment -> message.contains(fragment.toLowerCase(Locale.ROOT)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Exponential delay with "equal jitter": a half of it is fixed, while another one is random.
+     */
+    private long backoff(final int attempt) {
+        var delay = Math.min(config.retryMaxBackoff(), config.retryBackoff() << Math.min(attempt - 1, 30));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void sleep(final long millis, final RuntimeException cause) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.vavr.Lazy;
+import lombok.RequiredArgsConstructor;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Selenium HTTP client factory, which shares a single JDK client, and so its connection pool, between all
+ * the sessions of the same grid url. Supports keep-alive, optional HTTP/2 and configurable timeouts.
+ * Note that connection pool's size and keep-alive timeout are JVM-wide {@code jdk.httpclient.*} settings, which are
+ * read once on JDK client's class loading, so they could be tuned only via JVM arguments.
+ */
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class SharedHttpClients implements HttpClient.Factory {
+
+    public static final SharedHttpClients SHARED_HTTP_CLIENTS = new SharedHttpClients(WD_CONFIG);
+
+    private static final Set<String> RESTRICTED_HEADERS = Set.of(
+        "connection", "content-length", "expect", "host", "upgrade"
+    );
+
+    private final Map<String, SharedClient> clients = new ConcurrentHashMap<>();
+    private final WebDriverConfig config;
+
+    /**
+     * @return command executor of a new session, which reuses grid url's client
+     */
+    public CommandExecutor createExecutor(final URL url) {
+        return new HttpCommandExecutor(Map.of(), clientConfig(url), this);
+    }
+
+    public ClientConfig clientConfig(final URL url) {
+        return ClientConfig.defaultConfig()
+                           .baseUrl(url)
+                           .connectionTimeout(Duration.ofSeconds(config.httpConnectTimeout()))
+                           .readTimeout(Duration.ofSeconds(config.httpReadTimeout()));
+    }
+
+    @Override
+    public HttpClient createClient(final ClientConfig clientConfig) {
+        return clients.computeIfAbsent(
+            clientConfig.baseUrl().toString(), url -> new SharedClient(url, clientConfig, newJdkClient(clientConfig))
+        );
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        // Idle connections are closed by JDK client after keep-alive timeout.
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * Drops all the clients. Sessions, which are still alive, keep using their own ones.
+     */
+    public void shutdown() {
+        clients.clear();
+    }
+
+    private java.net.http.HttpClient newJdkClient(final ClientConfig clientConfig) {
+        return java.net.http.HttpClient.newBuilder()
+                                       .version(java.net.http.HttpClient.Version.valueOf(
+                                           config.httpVersion().toUpperCase(Locale.ROOT)))
+                                       .connectTimeout(clientConfig.connectionTimeout())
+                                       .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
+                                       .build();
+    }
+
+    /**
+     * Selenium client on top of a shared JDK one. Closing a session doesn't close the client, as it's used by others.
+     */
+    @RequiredArgsConstructor
+    private static final class SharedClient implements HttpClient {
+
+        private final String baseUrl;
+        private final ClientConfig clientConfig;
+        private final java.net.http.HttpClient client;
+        private final Lazy<HttpClient> webSockets =
+            Lazy.of(() -> HttpClient.Factory.createDefault().createClient(getClientConfig()));
+
+        @Override
+        public HttpResponse execute(final HttpRequest request) {
+            try {
+                return toResponse(client.send(toJdkRequest(request), BodyHandlers.ofByteArray()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Interrupted: " + request.getUri()));
+            }
+        }
+
+        @Override
+        public WebSocket openSocket(final HttpRequest request, final WebSocket.Listener listener) {
+            return webSockets.get().openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // Shared between sessions.
+        }
+
+        private ClientConfig getClientConfig() {
+            return clientConfig;
+        }
+
+        private java.net.http.HttpRequest toJdkRequest(final HttpRequest request) throws IOException {
+            var builder = java.net.http.HttpRequest.newBuilder(URI.create(toUrl(request)))
+                                                   .timeout(clientConfig.readTimeout());
+            for (String name : request.getHeaderNames()) {
+                if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    request.getHeaders(name).forEach(value -> builder.header(name, value));
+                }
+            }
+
+            byte[] body;
+            try (InputStream content = request.getContent().get()) {
+                body = content.readAllBytes();
+            }
+            return builder.method(request.getMethod().name(),
+                                  body.length == 0 ? BodyPublishers.noBody() : BodyPublishers.ofByteArray(body))
+                          .build();
+        }
+
+        private String toUrl(final HttpRequest request) {
+            var url = (baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl)
+                      + request.getUri();
+            var query = new StringJoiner("&", "?", "").setEmptyValue("");
+            for (String name : request.getQueryParameterNames()) {
+                request.getQueryParameters(name).forEach(
+                    value -> query.add(URLEncoder.encode(name, UTF_8) + "=" + URLEncoder.encode(value, UTF_8))
+                );
+            }
+            return url + query;
+        }
+
+        private static HttpResponse toResponse(final java.net.http.HttpResponse<byte[]> jdkResponse) {
+            var response = new HttpResponse().setStatus(jdkResponse.statusCode());
+            jdkResponse.headers().map().forEach((name, values) -> {
+                if (!name.startsWith(":")) {
+                    values.forEach(value -> response.addHeader(name, value));
+                }
+            });
+            response.setContent(Contents.bytes(jdkResponse.body()));
+            return response;
+        }
+    }
+}
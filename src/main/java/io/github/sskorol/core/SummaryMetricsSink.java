@@ -0,0 +1,46 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.utils.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import one.util.streamex.EntryStream;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Built-in sink, which aggregates timings into histograms per phase and tags, and logs their summary on suite finish.
+ */
+@Slf4j
+public class SummaryMetricsSink implements MetricsSink {
+
+    private final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(final Phase phase, final Tags tags, final long nanos) {
+        var key = new Key(phase, tags);
+        var histogram = histograms.get(key);
+        (histogram != null ? histogram : histograms.computeIfAbsent(key, k -> new LatencyHistogram())).record(nanos);
+    }
+
+    @Override
+    public void onFinish() {
+        EntryStream.of(histograms)
+                   .sorted(Map.Entry.comparingByKey(Comparator.comparing(Key::phase)
+                                                              .thenComparing(key -> key.tags().toString())))
+                   .forKeyValue((key, histogram) -> log.info("{} [{}]: {}", key.phase(), key.tags(), histogram));
+        histograms.clear();
+    }
+
+    public Map<Key, LatencyHistogram> getHistograms() {
+        return unmodifiableMap(histograms);
+    }
+
+    /**
+     * Histogram's identifier.
+     */
+    public record Key(Phase phase, Tags tags) {
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.config.XmlConfig;
+import io.github.sskorol.utils.LatencyStats;
+import io.vavr.control.Try;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.github.sskorol.core.AdmissionControl.ADMISSION_CONTROL;
+import static io.github.sskorol.core.DriverMetrics.DRIVER_METRICS;
+import static io.github.sskorol.utils.ConcurrencyUtils.daemonThreadFactory;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Closes browser sessions. In async mode sessions are closed by a bounded pool of background workers, so that test
+ * threads are not blocked by slow quit calls. When the queue is full, session is closed on the caller thread.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class TeardownExecutor {
+
+    private final WebDriverConfig config;
+    @Getter
+    private volatile LatencyStats stats = new LatencyStats();
+    private volatile LongAdder timeouts = new LongAdder();
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService watchdog;
+    private boolean closed;
+
+    /**
+     * Sessions, which are submitted while or after executor is drained, are closed on the caller thread.
+     */
+    public void submit(final WebDriverContainer container) {
+        var workers = config.teardownAsync() ? getExecutor() : null;
+        if (workers != null) {
+            workers.execute(() -> terminate(container));
+        } else {
+            terminate(container);
+        }
+    }
+
+    /**
+     * Accepts sessions for background teardown again after {@link #drain()}, e.g. when the next suite is started.
+     */
+    public synchronized void open() {
+        closed = false;
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Waits until all the pending sessions are closed, and resets statistics.
+     *
+     * @return statistics collected since the previous drain
+     */
+    public Summary drain() {
+        ThreadPoolExecutor pendingExecutor;
+        ScheduledExecutorService pendingWatchdog;
+        synchronized (this) {
+            pendingExecutor = executor;
+            pendingWatchdog = watchdog;
+            executor = null;
+            watchdog = null;
+            closed = true;
+        }
+
+        ofNullable(pendingExecutor).ifPresent(e -> {
+            e.shutdown();
+            if (!Try.of(() -> e.awaitTermination(config.teardownDrainTimeout(), SECONDS)).getOrElse(false)) {
+                log.warn("{} sessions were not closed within {} sec", e.getQueue().size() + e.getActiveCount(),
+                         config.teardownDrainTimeout());
+            }
+        });
+        ofNullable(pendingWatchdog).ifPresent(ScheduledExecutorService::shutdownNow);
+
+        var summary = new Summary(stats, timeouts.sum());
+        stats = new LatencyStats();
+        timeouts = new LongAdder();
+        if (summary.stats().getCount() > 0) {
+            log.info("Sessions teardown: {}, timeouts = {}", summary.stats(), summary.timeouts());
+        }
+        return summary;
+    }
+
+    private void terminate(final WebDriverContainer container) {
+        var guard = new Guard(Thread.currentThread());
+        var timer = config.teardownAsync()
+                    ? getWatchdog().schedule(guard::interrupt, config.teardownTimeout(), SECONDS)
+                    : null;
+        var event = DriverEvents.begin(new DriverEvents.Quit());
+        var sessionId = DriverEvents.sessionIdOf(container.getWebDriver());
+        var start = System.nanoTime();
+        container.getOpenedDevToolsService().ifPresent(cdp -> Try.run(cdp::close));
+        var quit = Try.run(container.getWebDriver()::quit);
+        ofNullable(timer).ifPresent(t -> t.cancel(false));
+        ADMISSION_CONTROL.release(container.getWebDriver());
+
+        var timedOut = guard.complete();
+        if (timedOut) {
+            timeouts.increment();
+        }
+        quit.onFailure(ex -> log.warn("Unable to quit WebDriver session{}", timedOut ? " in time" : "", ex));
+        var elapsed = System.nanoTime() - start;
+        stats.record(elapsed, quit.isFailure() || timedOut);
+        DRIVER_METRICS.record(MetricsSink.Phase.QUIT, container.getTags(), elapsed);
+        event.complete(container.getTags(), sessionId,
+                       ofNullable(container.getConfig()).map(XmlConfig::getTestName).orElse(null));
+    }
+
+    /**
+     * @return null, if executor is drained
+     */
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (closed) {
+            return null;
+        }
+        if (executor == null) {
+            var threads = config.teardownThreads();
+            executor = new ThreadPoolExecutor(
+                threads, threads, 0L, SECONDS,
+                new ArrayBlockingQueue<>(config.teardownQueueSize()),
+                daemonThreadFactory("wd-teardown"),
+                // Unlike CallerRunsPolicy, it doesn't discard a session, which is submitted to a draining executor.
+                (task, workers) -> task.run()
+            );
+        }
+        return executor;
+    }
+
+    private synchronized ScheduledExecutorService getWatchdog() {
+        if (watchdog == null) {
+            watchdog = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("wd-teardown-watchdog"));
+        }
+        return watchdog;
+    }
+
+    /**
+     * Teardown statistics of a single drain period.
+     */
+    public record Summary(LatencyStats stats, long timeouts) {
+    }
+
+    /**
+     * Makes sure a worker is never interrupted after it has finished current session's teardown.
+     */
+    @RequiredArgsConstructor
+    private static final class Guard {
+
+        private final Thread worker;
+        private boolean completed;
+        private boolean interrupted;
+
+        synchronized void interrupt() {
+            if (!completed) {
+                interrupted = true;
+                worker.interrupt();
+            }
+        }
+
+        synchronized boolean complete() {
+            completed = true;
+            if (interrupted) {
+                Thread.interrupted();
+            }
+            return interrupted;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.utils.LatencyHistogram;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.Response;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Decorates driver's command executor with per-command latency histograms. As each command of a session goes through
+ * executor, including element and navigation ones, timings cover the whole round trip to a driver or grid.
+ */
+@SuppressWarnings("FinalLocalVariable")
+public class TimedCommandExecutor implements CommandExecutor {
+
+    private final CommandExecutor delegate;
+    private final AtomicReference<Map<String, LatencyHistogram>> histograms =
+        new AtomicReference<>(new ConcurrentHashMap<>());
+
+    public TimedCommandExecutor(final CommandExecutor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(final Command command) throws IOException {
+        var start = System.nanoTime();
+        try {
+            return delegate.execute(command);
+        } finally {
+            var elapsed = System.nanoTime() - start;
+            var current = histograms.get();
+            var histogram = current.get(command.getName());
+            (histogram != null ? histogram : current.computeIfAbsent(command.getName(), name -> new LatencyHistogram()))
+                .record(elapsed);
+        }
+    }
+
+    /**
+     * @return histograms recorded since the previous call
+     */
+    public Map<String, LatencyHistogram> drain() {
+        return histograms.getAndSet(new ConcurrentHashMap<>());
+    }
+
+    public CommandExecutor getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.config.WebDriverConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.ITestResult;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static io.github.sskorol.utils.TestNGUtils.getResultPath;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Compares test's screenshot with a baseline, stored as {@code suite/test/Class.method.png} in
+ * {@code wd.visual.baseline.dir}. Missing baseline is created from the current screenshot. Diff ratio and regions are
+ * attached to {@link ITestResult}, and a passed test could be optionally failed, if the ratio exceeds a threshold.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class VisualCheck {
+
+    public static final VisualCheck VISUAL_CHECK = new VisualCheck(WD_CONFIG);
+
+    public static final String BASELINE_ATTRIBUTE = "visualBaseline";
+    public static final String DIFF_RATIO_ATTRIBUTE = "visualDiffRatio";
+    public static final String DIFF_REGIONS_ATTRIBUTE = "visualDiffRegions";
+
+    private final WebDriverConfig config;
+    private ForkJoinPool pool;
+    private VisualDiff visualDiff;
+
+    /**
+     * Lossy screenshots (wd.screenshot.format other than png) are not compared, as their encoding noise would be
+     * reported as a difference. In fail fast mode, the ratio covers only the first difference, so any difference fails
+     * a test regardless of wd.visual.threshold.
+     *
+     * @return comparison result, or empty, if a baseline has been just created or screenshot is not a PNG
+     * @throws UncheckedIOException if screenshot or baseline can't be read, or baseline can't be written
+     */
+    public Optional<VisualDiff.Result> check(final Screenshot screenshot, final ITestResult testResult) {
+        if (!screenshot.isPng()) {
+            log.warn("Visual check of {} is skipped: only PNG screenshots could be compared, see wd.screenshot.format",
+                     testResult.getName());
+            return Optional.empty();
+        }
+
+        try {
+            var baseline = Paths.get(config.visualBaselineDir()).resolve(getResultPath(testResult) + ".png");
+            var actual = read(screenshot.openStream());
+            testResult.setAttribute(BASELINE_ATTRIBUTE, baseline);
+            if (config.visualUpdate() || !Files.exists(baseline)) {
+                Files.createDirectories(baseline.toAbsolutePath().getParent());
+                ImageIO.write(actual, "png", baseline.toFile());
+                log.info("Baseline of {} is saved into {}", testResult.getName(), baseline);
+                return Optional.empty();
+            }
+
+            var expected = read(Files.newInputStream(baseline));
+            var result = getVisualDiff().compare(actual, expected, config.visualFailFast());
+            testResult.setAttribute(DIFF_RATIO_ATTRIBUTE, result.ratio());
+            testResult.setAttribute(DIFF_REGIONS_ATTRIBUTE, result.regions());
+            if (config.visualFailOnMismatch() && isMismatch(result) && testResult.getStatus() == ITestResult.SUCCESS) {
+                testResult.setStatus(ITestResult.FAILURE);
+                testResult.setThrowable(new AssertionError(String.format(
+                    Locale.ROOT, "Screenshot differs from %s by %.4f%% in %s", baseline, result.ratio() * 100,
+                    result.regions()
+                )));
+            }
+            return Optional.of(result);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to compare a screenshot of " + testResult.getName(), ex);
+        }
+    }
+
+    private boolean isMismatch(final VisualDiff.Result result) {
+        return result.complete() ? result.ratio() > config.visualThreshold() : !result.isIdentical();
+    }
+
+    private static BufferedImage read(final InputStream source) throws IOException {
+        try (source) {
+            var image = ImageIO.read(source);
+            if (image == null) {
+                throw new IOException("Unsupported image format");
+            }
+            return image;
+        }
+    }
+
+    /**
+     * Stops comparison's threads on suite finish. The next check starts them again.
+     */
+    public synchronized void shutdown() {
+        ofNullable(pool).ifPresent(ForkJoinPool::shutdown);
+        pool = null;
+        visualDiff = null;
+    }
+
+    private synchronized VisualDiff getVisualDiff() {
+        if (visualDiff == null) {
+            var threads = config.visualThreads() > 0
+                          ? config.visualThreads()
+                          : Runtime.getRuntime().availableProcessors();
+            pool = new ForkJoinPool(threads);
+            visualDiff = new VisualDiff(config.visualTileSize(), config.visualTolerance(), pool);
+        }
+        return visualDiff;
+    }
+}
@@ -0,0 +1,261 @@
+package io.github.sskorol.core;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.awt.image.BufferedImage.*;
+
+/**
+ * Compares images by square tiles in parallel on a fork/join pool. Rows of identical raster types are compared
+ * directly via {@link Arrays#mismatch}, without copying or per-pixel color conversion. Other images are converted
+ * into ARGB first. In fail fast mode, the remaining tiles are skipped as soon as the first difference is found.
+ */
+@SuppressWarnings("FinalLocalVariable")
+public class VisualDiff {
+
+    private static final List<Integer> RAW_TYPES = List.of(
+        TYPE_INT_RGB, TYPE_INT_ARGB, TYPE_INT_ARGB_PRE, TYPE_INT_BGR, TYPE_3BYTE_BGR, TYPE_4BYTE_ABGR,
+        TYPE_4BYTE_ABGR_PRE
+    );
+
+    private final int tileSize;
+    private final int tolerance;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param tileSize  tile's side in pixels
+     * @param tolerance max difference of a color channel, which is still treated as the same color
+     * @param pool      pool, which compares tiles
+     */
+    public VisualDiff(final int tileSize, final int tolerance, final ForkJoinPool pool) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size should be positive: " + tileSize);
+        }
+        this.tileSize = tileSize;
+        this.tolerance = tolerance;
+        this.pool = pool;
+    }
+
+    public Result compare(final BufferedImage actual, final BufferedImage expected, final boolean failFast) {
+        var width = actual.getWidth();
+        var height = actual.getHeight();
+        if (width != expected.getWidth() || height != expected.getHeight()) {
+            var region = new Rectangle(0, 0, width, height);
+            return new Result(width, height, (long) width * height, List.of(region), true);
+        }
+
+        var comparable = actual.getType() == expected.getType() && RAW_TYPES.contains(actual.getType());
+        var a = comparable ? dataOf(actual) : null;
+        var b = comparable ? dataOf(expected) : null;
+        if (a == null || b == null || a.getClass() != b.getClass()) {
+            a = dataOf(toArgb(actual));
+            b = dataOf(toArgb(expected));
+        }
+        var job = new Job(a, b, width, height, failFast);
+        pool.invoke(new TileTask(job, 0, job.tiles.length));
+
+        var regions = Arrays.stream(job.tiles).filter(Objects::nonNull).toList();
+        var pixels = Arrays.stream(job.pixels).sum();
+        return new Result(width, height, pixels, regions, !failFast || regions.isEmpty());
+    }
+
+    private static Object dataOf(final BufferedImage image) {
+        var raster = image.getRaster();
+        var buffer = raster.getDataBuffer();
+        if (raster.getParent() == null && buffer.getNumBanks() == 1 && buffer.getOffset() == 0) {
+            var pixels = image.getWidth() * image.getHeight();
+            if (buffer instanceof DataBufferInt ints && ints.getData().length == pixels) {
+                return ints.getData();
+            }
+            if (buffer instanceof DataBufferByte bytes
+                && bytes.getData().length == pixels * raster.getNumDataElements()) {
+                return bytes.getData();
+            }
+        }
+        return null;
+    }
+
+    private static BufferedImage toArgb(final BufferedImage image) {
+        var copy = new BufferedImage(image.getWidth(), image.getHeight(), TYPE_INT_ARGB);
+        var graphics = copy.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return copy;
+    }
+
+    /**
+     * Comparison's outcome. In fail fast mode, it's incomplete: only the first found difference is reported.
+     */
+    public record Result(int width, int height, long differentPixels, List<Rectangle> regions, boolean complete) {
+
+        public double ratio() {
+            var total = (long) width * height;
+            return total == 0 ? 0 : (double) differentPixels / total;
+        }
+
+        public boolean isIdentical() {
+            return differentPixels == 0;
+        }
+    }
+
+    /**
+     * Shared state of a single comparison. Each tile writes only its own slots, so no synchronization is required.
+     */
+    private final class Job {
+
+        private final int[] intsA;
+        private final int[] intsB;
+        private final byte[] bytesA;
+        private final byte[] bytesB;
+        private final int width;
+        private final int height;
+        private final int pixelSize;
+        private final int tilesX;
+        private final boolean failFast;
+        private final Rectangle[] tiles;
+        private final long[] pixels;
+        private final AtomicBoolean found = new AtomicBoolean();
+
+        private Job(final Object a, final Object b, final int width, final int height, final boolean failFast) {
+            this.intsA = a instanceof int[] ints ? ints : null;
+            this.intsB = b instanceof int[] ints ? ints : null;
+            this.bytesA = a instanceof byte[] bytes ? bytes : null;
+            this.bytesB = b instanceof byte[] bytes ? bytes : null;
+            this.width = width;
+            this.height = height;
+            this.pixelSize = intsA != null ? 1 : bytesA.length / Math.max(1, width * height);
+            this.tilesX = (width + tileSize - 1) / tileSize;
+            this.failFast = failFast;
+            var tilesCount = tilesX * ((height + tileSize - 1) / tileSize);
+            this.tiles = new Rectangle[tilesCount];
+            this.pixels = new long[tilesCount];
+        }
+
+        private void compareTile(final int index) {
+            var x0 = index % tilesX * tileSize;
+            var y0 = index / tilesX * tileSize;
+            var x1 = Math.min(width, x0 + tileSize);
+            var y1 = Math.min(height, y0 + tileSize);
+            int minX = Integer.MAX_VALUE;
+            int minY = Integer.MAX_VALUE;
+            int maxX = -1;
+            int maxY = -1;
+            long count = 0;
+
+            for (int y = y0; y < y1; y++) {
+                if (failFast && found.get()) {
+                    return;
+                }
+                var rowEnd = (y * width + x1) * pixelSize;
+                var position = (y * width + x0) * pixelSize;
+                while (position < rowEnd) {
+                    var difference = nextDifference(position, rowEnd);
+                    if (difference < 0) {
+                        break;
+                    }
+                    var x = difference / pixelSize - y * width;
+                    minX = Math.min(minX, x);
+                    maxX = Math.max(maxX, x);
+                    minY = Math.min(minY, y);
+                    maxY = y;
+                    count++;
+                    if (failFast) {
+                        found.set(true);
+                        tiles[index] = new Rectangle(x, y, 1, 1);
+                        pixels[index] = count;
+                        return;
+                    }
+                    position = (difference / pixelSize + 1) * pixelSize;
+                }
+            }
+
+            if (count > 0) {
+                tiles[index] = new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+                pixels[index] = count;
+            }
+        }
+
+        /**
+         * Equal runs are skipped via {@link Arrays#mismatch}, so tolerance is checked only for mismatching pixels.
+         *
+         * @return index of the first element of a differing pixel within [from, to), or -1
+         */
+        private int nextDifference(final int from, final int to) {
+            var position = from;
+            while (position < to) {
+                var mismatch = intsA != null
+                               ? Arrays.mismatch(intsA, position, to, intsB, position, to)
+                               : Arrays.mismatch(bytesA, position, to, bytesB, position, to);
+                if (mismatch < 0) {
+                    return -1;
+                }
+
+                var pixel = position + mismatch / pixelSize * pixelSize;
+                if (tolerance <= 0 || (intsA != null ? isDifferent(intsA[pixel], intsB[pixel]) : isDifferent(pixel))) {
+                    return pixel;
+                }
+                position = pixel + pixelSize;
+            }
+            return -1;
+        }
+
+        private boolean isDifferent(final int a, final int b) {
+            for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+                if (Math.abs((a >>> shift & 0xFF) - (b >>> shift & 0xFF)) > tolerance) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isDifferent(final int pixel) {
+            for (int i = pixel; i < pixel + pixelSize; i++) {
+                if (Math.abs((bytesA[i] & 0xFF) - (bytesB[i] & 0xFF)) > tolerance) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Splits a range of tiles in halves down to a single tile.
+     */
+    private static final class TileTask extends RecursiveAction {
+
+        private final transient Job job;
+        private final int from;
+        private final int to;
+
+        private TileTask(final Job job, final int from, final int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (job.failFast && job.found.get()) {
+                return;
+            }
+
+            if (to - from > 1) {
+                var middle = (from + to) >>> 1;
+                invokeAll(new TileTask(job, from, middle), new TileTask(job, middle, to));
+            } else if (to > from) {
+                job.compareTile(from);
+            }
+        }
+    }
+}
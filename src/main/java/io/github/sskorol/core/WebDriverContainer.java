@@ -3,26 +3,130 @@ package io.github.sskorol.core;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.github.sskorol.cdt.services.ChromeDevToolsService;
 import io.github.sskorol.config.XmlConfig;
+import io.vavr.Lazy;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static java.util.Optional.ofNullable;
+
 /**
- * Encapsulates driver, wait and devtools services.
+ * Encapsulates driver, wait and devtools services. DevTools connection is opened on first use, and is shared by all
+ * the containers of the same browser session.
  */
 @SuppressFBWarnings({"EI_EXPOSE_REP", "EI_EXPOSE_REP2"})
 @RequiredArgsConstructor
 @Getter
 public class WebDriverContainer {
 
+    private static final String UNKNOWN = "unknown";
+
     private final WebDriver webDriver;
     private final WebDriverWait webDriverWait;
     private final XmlConfig config;
-    private ChromeDevToolsService devToolsService;
+    @Getter(AccessLevel.NONE)
+    private Lazy<ChromeDevToolsService> devToolsService;
+    private MetricsSink.Tags tags;
+    private int usages = 1;
 
+    /**
+     * Assigns an already opened DevTools connection.
+     */
     public WebDriverContainer withDevToolsService(final ChromeDevToolsService devToolsService) {
-        this.devToolsService = devToolsService;
+        this.devToolsService = devToolsService != null ? Lazy.of(() -> devToolsService) : null;
+        ofNullable(this.devToolsService).ifPresent(Lazy::get);
         return this;
     }
+
+    /**
+     * @param connector opens DevTools connection on first {@link #getDevToolsService()} call
+     */
+    public WebDriverContainer withDevToolsService(final Supplier<ChromeDevToolsService> connector) {
+        this.devToolsService = connector != null ? Lazy.of(connector) : null;
+        return this;
+    }
+
+    /**
+     * Connects to DevTools on first call.
+     *
+     * @throws IllegalStateException if browser doesn't support CDP, or connection can't be established
+     */
+    public ChromeDevToolsService getDevToolsService() {
+        if (devToolsService == null) {
+            throw new IllegalStateException(getTags().browser() + " session doesn't support DevTools. "
+                                            + "Make sure Browser implementation implements CDP interface.");
+        }
+        return devToolsService.get();
+    }
+
+    public boolean isDevToolsSupported() {
+        return devToolsService != null;
+    }
+
+    public boolean isDevToolsServiceOpened() {
+        return devToolsService != null && devToolsService.isEvaluated();
+    }
+
+    /**
+     * @return DevTools connection, only if it has been already opened
+     */
+    public Optional<ChromeDevToolsService> getOpenedDevToolsService() {
+        return isDevToolsServiceOpened() ? Optional.of(devToolsService.get()) : Optional.empty();
+    }
+
+    /**
+     * @return a new batch of element queries, which are resolved in a single round trip
+     * @throws IllegalStateException if driver can't execute scripts
+     */
+    public ElementBatch batch() {
+        if (webDriver instanceof JavascriptExecutor executor) {
+            return new ElementBatch(executor);
+        }
+        throw new IllegalStateException(getTags().browser() + " driver doesn't support JavaScript execution");
+    }
+
+    public WebDriverContainer withTags(final MetricsSink.Tags tags) {
+        this.tags = tags;
+        return this;
+    }
+
+    /**
+     * @return metrics tags, which this session has been created with
+     */
+    public MetricsSink.Tags getTags() {
+        if (tags != null) {
+            return tags;
+        }
+        final String browser = config != null && config.hasBrowser() ? config.getBrowser() : UNKNOWN;
+        return new MetricsSink.Tags(browser, UNKNOWN, false);
+    }
+
+    /**
+     * Wraps the same browser session for a new test.
+     */
+    public WebDriverContainer reuse(final XmlConfig config) {
+        var container = withConfig(config);
+        container.usages = usages + 1;
+        return container;
+    }
+
+    /**
+     * Assigns a not yet used session (e.g. pre-warmed one) to a new test.
+     */
+    public WebDriverContainer withConfig(final XmlConfig config) {
+        var container = new WebDriverContainer(webDriver, webDriverWait, config).withTags(tags);
+        container.devToolsService = devToolsService;
+        container.usages = usages;
+        return container;
+    }
+
+    public boolean isReused() {
+        return usages > 1;
+    }
 }
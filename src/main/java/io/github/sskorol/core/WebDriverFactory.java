@@ -2,11 +2,16 @@ package io.github.sskorol.core;
 
 import io.github.sskorol.config.XmlConfig;
 import io.vavr.control.Try;
-import org.joor.Reflect;
+import one.util.streamex.StreamEx;
 import org.openqa.selenium.WebDriver;
 import org.testng.SkipException;
 
+import java.util.List;
+
 import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static io.github.sskorol.core.AdmissionControl.ADMISSION_CONTROL;
+import static io.github.sskorol.core.DriverMetrics.DRIVER_METRICS;
+import static io.github.sskorol.core.SessionRetry.SESSION_RETRY;
 import static io.github.sskorol.utils.StringUtils.toDimension;
 import static io.vavr.API.*;
 
@@ -18,23 +23,50 @@ public class WebDriverFactory implements WebDriverProvider {
         return WDP_DEFAULT;
     }
 
+    @Override
+    public void prepare(final List<Browser> browsers) {
+        StreamEx.of(browsers)
+                .map(browser -> browser.isRemote() ? Browser.Name.Remote : browser.name())
+                .distinct()
+                .forEach(DriverConstructor::of);
+    }
+
     @Override
     public WebDriver createDriver(final Browser browser, final XmlConfig config) {
-        final Reflect driver = wrapDriver(browser);
-        return Try.of(() -> Match(browser).of(
-                Case($(Browser::isRemote), () -> createRemote(driver, browser, config)),
-                Case($(), () -> createLocal(driver, browser, config)))
-        ).map(d -> withCustomScreenResolution(d.get())).getOrElseThrow(ex -> {
-            throw new SkipException("Unable to create " + browser.name().getDriverClassName()
-                    + " with the following capabilities: " + browser.configuration(config), ex);
-        });
+        return Try.of(() -> getDriverConstructor(browser))
+                  .map(driver -> SESSION_RETRY.create(endpointOf(browser), () -> Match(browser).of(
+                      Case($(Browser::isRemote), () -> createRemote(driver, browser, config)),
+                      Case($(), () -> createLocal(driver, browser, config)))))
+                  .map(driver -> withCustomScreenResolution(driver, browser))
+                  .getOrElseThrow(ex -> {
+                      throw new SkipException("Unable to create " + browser.name().getDriverClassName()
+                              + " with the following capabilities: " + browser.configuration(config), ex);
+                  });
+    }
+
+    private String endpointOf(final Browser browser) {
+        return label() + "@" + (browser.isRemote() ? browser.url() : browser.name().getBrowserName());
     }
 
-    private WebDriver withCustomScreenResolution(final WebDriver driver) {
-        Match(WD_CONFIG.screenResolution()).of(
-                Case($("max"), () -> run(() -> driver.manage().window().maximize())),
-                Case($(), value -> run(() -> toDimension(value).ifPresent(d -> driver.manage().window().setSize(d))))
-        );
+    /**
+     * Session, which can't be prepared for a test, is closed right away, so that neither browser, nor grid's slot leak.
+     */
+    private WebDriver withCustomScreenResolution(final WebDriver driver, final Browser browser) {
+        var start = System.nanoTime();
+        try {
+            Match(WD_CONFIG.screenResolution()).of(
+                    Case($("max"), () -> run(() -> driver.manage().window().maximize())),
+                    Case($(), value -> run(() -> toDimension(value)
+                            .ifPresent(dimension -> driver.manage().window().setSize(dimension))))
+            );
+        } catch (RuntimeException ex) {
+            Try.run(driver::quit).onFailure(ex::addSuppressed);
+            ADMISSION_CONTROL.release(driver);
+            throw ex;
+        }
+        DRIVER_METRICS.record(MetricsSink.Phase.SCREEN_RESOLUTION,
+                              new MetricsSink.Tags(browser.name().getBrowserName(), label(), browser.isRemote()),
+                              System.nanoTime() - start);
         return driver;
     }
 }
@@ -0,0 +1,205 @@
+package io.github.sskorol.core;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.config.XmlConfig;
+import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import one.util.streamex.StreamEx;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Keeps idle browser sessions keyed by {@link XmlConfig#getSessionKey()}, so that they could be reused by next tests.
+ * Sessions which can't be retained anymore are handed over to a provided disposer. Note that wd.pool.max.size limits
+ * only idle sessions: the ones, which are currently used by tests, are not counted.
+ * Pool could also be pre-filled with sessions, which are created in background before tests are started.
+ */
+@Slf4j
+@SuppressWarnings("FinalLocalVariable")
+public class WebDriverPool {
+
+    private final Map<String, Deque<IdleSession>> idleSessions = new ConcurrentHashMap<>();
+    private final Map<String, Queue<CompletableFuture<Optional<WebDriverContainer>>>> pendingSessions =
+        new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final WebDriverConfig config;
+    private final Consumer<WebDriverContainer> disposer;
+    private final ResetSteps resetSteps;
+
+    public WebDriverPool(final WebDriverConfig config, final Consumer<WebDriverContainer> disposer) {
+        this.config = config;
+        this.disposer = disposer;
+        this.resetSteps = new ResetSteps("wd.pool.reset", config::poolReset);
+    }
+
+    /**
+     * Checks pool's settings on suite start, so that misconfiguration is reported once, instead of disposing
+     * every released session.
+     *
+     * @throws IllegalArgumentException if pool is enabled and wd.pool.reset contains an unknown step
+     */
+    public void validate() {
+        if (config.poolEnabled()) {
+            resetSteps.get();
+        }
+    }
+
+    public Optional<WebDriverContainer> acquire(final XmlConfig xmlConfig) {
+        evictExpired();
+        var key = xmlConfig.getSessionKey();
+        return acquireIdle(key, xmlConfig).or(() -> acquirePending(key, xmlConfig));
+    }
+
+    /**
+     * Schedules a background session creation. Such session is handed over to the first test with the same key.
+     */
+    public void warmUp(
+        final XmlConfig xmlConfig,
+        final Supplier<Optional<WebDriverContainer>> factory,
+        final Executor executor
+    ) {
+        pendingSessions.computeIfAbsent(xmlConfig.getSessionKey(), key -> new ConcurrentLinkedQueue<>())
+                       .offer(CompletableFuture.supplyAsync(factory, executor));
+    }
+
+    /**
+     * Resets and retains a session for further reuse.
+     *
+     * @return false if session should be disposed by caller
+     */
+    public boolean release(final WebDriverContainer container) {
+        if (!config.poolEnabled() || container.getUsages() >= config.poolMaxUses() || !reset(container)) {
+            return false;
+        }
+
+        if (size.incrementAndGet() > config.poolMaxSize()) {
+            size.decrementAndGet();
+            return false;
+        }
+
+        var sessions = idleSessions.computeIfAbsent(
+            container.getConfig().getSessionKey(), key -> new ConcurrentLinkedDeque<>()
+        );
+        sessions.offerFirst(new IdleSession(container, System.nanoTime()));
+        evictExpired();
+        return true;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public void clear() {
+        StreamEx.of(pendingSessions.values())
+                .flatCollection(sessions -> sessions)
+                .forEach(session -> session.thenAccept(container -> container.ifPresent(disposer)));
+        pendingSessions.clear();
+        StreamEx.of(idleSessions.values()).forEach(sessions -> {
+            IdleSession session;
+            while ((session = sessions.pollLast()) != null) {
+                size.decrementAndGet();
+                disposer.accept(session.container());
+            }
+        });
+        idleSessions.clear();
+    }
+
+    private Optional<WebDriverContainer> acquireIdle(final String key, final XmlConfig xmlConfig) {
+        var sessions = idleSessions.get(key);
+        IdleSession session;
+        while (sessions != null && (session = sessions.pollFirst()) != null) {
+            size.decrementAndGet();
+            if (!isExpired(session)) {
+                return Optional.of(session.container().reuse(xmlConfig));
+            }
+            disposer.accept(session.container());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Takes completed warm-ups first. Otherwise, waits for the oldest pending one at most wd.pool.warmup.timeout,
+     * and returns it back to the queue, if it's still not ready, so that caller could create a session inline.
+     */
+    private Optional<WebDriverContainer> acquirePending(final String key, final XmlConfig xmlConfig) {
+        var sessions = pendingSessions.get(key);
+        if (sessions == null) {
+            return Optional.empty();
+        }
+
+        var completed = StreamEx.of(sessions.iterator()).filter(CompletableFuture::isDone).toList();
+        for (var session : completed) {
+            if (sessions.remove(session)) {
+                var container = Try.of(() -> session.getNow(Optional.empty())).getOrElse(Optional.empty());
+                if (container.isPresent()) {
+                    return container.map(c -> c.withConfig(xmlConfig));
+                }
+            }
+        }
+
+        CompletableFuture<Optional<WebDriverContainer>> session;
+        while ((session = sessions.poll()) != null) {
+            try {
+                var container = session.get(config.poolWarmUpTimeout(), SECONDS);
+                if (container.isPresent()) {
+                    return container.map(c -> c.withConfig(xmlConfig));
+                }
+            } catch (TimeoutException ex) {
+                sessions.offer(session);
+                return Optional.empty();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                sessions.offer(session);
+                return Optional.empty();
+            } catch (ExecutionException | CancellationException ignored) {
+                // failed warm-up is skipped, so the next one is checked
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Sweeps all the keys, so that sessions of configurations, which are not requested anymore, don't hold grid's
+     * slots longer than wd.pool.max.idle.
+     */
+    private void evictExpired() {
+        StreamEx.of(idleSessions.values()).forEach(sessions -> {
+            IdleSession session;
+            while ((session = sessions.peekLast()) != null && isExpired(session)) {
+                if (sessions.removeLastOccurrence(session)) {
+                    size.decrementAndGet();
+                    disposer.accept(session.container());
+                }
+            }
+        });
+    }
+
+    private boolean reset(final WebDriverContainer container) {
+        var driver = container.getWebDriver();
+        var steps = Try.of(resetSteps::get).onFailure(ex -> log.error("Session can't be returned to the pool", ex));
+        return steps.isSuccess() && Try.run(() -> steps.get().forEach(step -> step.apply(driver))).isSuccess();
+    }
+
+    private boolean isExpired(final IdleSession session) {
+        return System.nanoTime() - session.releasedAt() > SECONDS.toNanos(config.poolMaxIdle());
+    }
+
+    private record IdleSession(WebDriverContainer container, long releasedAt) {
+    }
+}
@@ -1,6 +1,5 @@
 package io.github.sskorol.core;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import io.github.sskorol.config.XmlConfig;
 import lombok.SneakyThrows;
 import org.joor.Reflect;
@@ -8,12 +7,19 @@ import org.openqa.selenium.WebDriver;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.List;
 
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static io.github.sskorol.core.AdmissionControl.ADMISSION_CONTROL;
+import static io.github.sskorol.core.DriverResolutionCache.DRIVER_RESOLUTION_CACHE;
+import static io.github.sskorol.core.SharedHttpClients.SHARED_HTTP_CLIENTS;
+import static org.joor.Reflect.on;
 import static org.joor.Reflect.onClass;
 
 /**
  * Key interface which should be implemented in case of a custom WebDriver factory.
  */
+@SuppressWarnings("FinalLocalVariable")
 public interface WebDriverProvider {
 
     String WDP_DEFAULT = "wdp_default";
@@ -22,22 +28,93 @@ public interface WebDriverProvider {
 
     WebDriver createDriver(Browser browser, XmlConfig config);
 
+    /**
+     * Called once when service providers are loaded. Allows failing fast, if some of the browsers can't be supported.
+     *
+     * @throws IllegalStateException if some of the given browsers can't be supported
+     */
+    default void prepare(final List<Browser> browsers) {
+    }
+
+    default DriverConstructor getDriverConstructor(final Browser browser) {
+        return DriverConstructor.of(browser.isRemote() ? Browser.Name.Remote : browser.name());
+    }
+
+    /**
+     * Creates a new session, while driver binary's system property points to the resolved browser version,
+     * so that parallel sessions of different versions don't pick each other's binaries.
+     */
+    default WebDriver createLocal(final DriverConstructor driver, final Browser browser, final XmlConfig config) {
+        return DRIVER_RESOLUTION_CACHE.create(driver.getType(), config.getVersion(),
+                                              () -> driver.create(browser.configuration(config)));
+    }
+
+    /**
+     * Creates a new session as soon as grid endpoint has a free slot (see wd.remote.max.sessions).
+     * With wd.http.shared enabled, all the sessions of the same grid url share a single HTTP client.
+     */
+    @SneakyThrows(MalformedURLException.class)
+    default WebDriver createRemote(final DriverConstructor driver, final Browser browser, final XmlConfig config) {
+        var url = new URL(browser.url());
+        var tags = new MetricsSink.Tags(browser.name().getBrowserName(), label(), true);
+        return ADMISSION_CONTROL.admit(url.toString(), tags, () -> WD_CONFIG.httpShared()
+            ? driver.create(SHARED_HTTP_CLIENTS.createExecutor(url), browser.configuration(config))
+            : driver.create(url, browser.configuration(config)));
+    }
+
+    default void setupDriver(final Class<? extends WebDriver> driverClass) {
+        setupDriver(driverClass, "");
+    }
+
+    /**
+     * Resolves driver binary only once per driver class and browser version within JVM. Note that the binary's system
+     * property is JVM-wide: when different versions of the same driver are used in parallel, prefer createLocal.
+     */
+    default void setupDriver(final Class<? extends WebDriver> driverClass, final String browserVersion) {
+        DRIVER_RESOLUTION_CACHE.resolve(driverClass, browserVersion);
+    }
+
+    /**
+     * @deprecated use {@link #getDriverConstructor(Browser)}
+     */
+    @Deprecated
     default Reflect wrapDriver(final Browser browser) {
-        return onClass((browser.isRemote() ? Browser.Name.Remote : browser.name()).getDriverClassName());
+        return onClass(getDriverConstructor(browser).getType());
     }
 
+    /**
+     * @deprecated use {@link #createLocal(DriverConstructor, Browser, XmlConfig)}
+     */
+    @Deprecated
     default Reflect createLocal(final Reflect driver, final Browser browser, final XmlConfig config) {
-        setupDriver(driver);
-        return driver.create(browser.configuration(config));
+        return on(createLocal(DriverConstructor.of(driverType(driver)), browser, config));
     }
 
-    @SneakyThrows(MalformedURLException.class)
+    /**
+     * @deprecated use {@link #createRemote(DriverConstructor, Browser, XmlConfig)}
+     */
+    @Deprecated
     default Reflect createRemote(final Reflect driver, final Browser browser, final XmlConfig config) {
-        return driver.create(new URL(browser.url()), browser.configuration(config));
+        return on(createRemote(DriverConstructor.of(driverType(driver)), browser, config));
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * @deprecated use {@link #setupDriver(Class)}
+     */
+    @Deprecated
     default void setupDriver(final Reflect driver) {
-        WebDriverManager.getInstance((Class<? extends WebDriver>) driver.type()).setup();
+        setupDriver(driverType(driver));
+    }
+
+    /**
+     * @deprecated use {@link #setupDriver(Class, String)}
+     */
+    @Deprecated
+    default void setupDriver(final Reflect driver, final String browserVersion) {
+        setupDriver(driverType(driver), browserVersion);
+    }
+
+    private static Class<? extends WebDriver> driverType(final Reflect driver) {
+        return driver.type().asSubclass(WebDriver.class);
     }
 }
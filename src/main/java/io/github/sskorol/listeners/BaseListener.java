@@ -3,114 +3,377 @@ package io.github.sskorol.listeners;
 import io.github.sskorol.cdt.services.ChromeDevToolsService;
 import io.github.sskorol.core.*;
 import io.github.sskorol.config.XmlConfig;
+import io.vavr.Lazy;
 import io.vavr.control.Try;
+import lombok.extern.slf4j.Slf4j;
+import one.util.streamex.IntStreamEx;
 import one.util.streamex.StreamEx;
-import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.ITestResult;
 import org.testng.SkipException;
+import org.testng.xml.XmlSuite;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+import static io.github.sskorol.core.CommandMetrics.COMMAND_METRICS;
+import static io.github.sskorol.core.DriverMetrics.DRIVER_METRICS;
+import static io.github.sskorol.core.ScreenshotCapture.SCREENSHOT_CAPTURE;
+import static io.github.sskorol.core.SharedHttpClients.SHARED_HTTP_CLIENTS;
+import static io.github.sskorol.core.VisualCheck.VISUAL_CHECK;
+import static io.github.sskorol.utils.ConcurrencyUtils.daemonThreadFactory;
 import static io.github.sskorol.utils.ServiceLoaderUtils.load;
+import static io.github.sskorol.utils.TestNGUtils.getSuiteBrowserConfigurations;
 import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
-import static io.github.sskorol.core.WebDriverFactory.WDP_DEFAULT;
 import static java.time.Duration.ofSeconds;
 import static java.util.Optional.ofNullable;
-import static org.openqa.selenium.OutputType.BYTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
+@Slf4j
 @SuppressWarnings({"MissingJavadocType", "FinalLocalVariable"})
 public abstract class BaseListener {
 
-    private static final ThreadLocal<WebDriverContainer> DRIVER_CONTAINER = new ThreadLocal<>();
+    public static final String COMMAND_METRICS_ATTRIBUTE = "commandMetrics";
+
+    private static final ThreadLocal<DriverHandle> DRIVER_CONTAINER = new ThreadLocal<>();
     private static final List<Browser> BROWSERS = new CopyOnWriteArrayList<>();
     private static final List<WebDriverProvider> WEB_DRIVER_PROVIDERS = new CopyOnWriteArrayList<>();
-    private static final List<ScreenshotConsumer> SCREENSHOT_CONSUMERS = new CopyOnWriteArrayList<>();
+    private static final List<ScreenshotStreamConsumer> SCREENSHOT_CONSUMERS = new CopyOnWriteArrayList<>();
+    private static final ScreenshotDispatcher SCREENSHOT_DISPATCHER = new ScreenshotDispatcher(WD_CONFIG);
+    private static final TeardownExecutor TEARDOWN_EXECUTOR = new TeardownExecutor(WD_CONFIG);
+    private static final WebDriverPool WEB_DRIVER_POOL = new WebDriverPool(WD_CONFIG, TEARDOWN_EXECUTOR::submit);
+    private static final ScopedSessions SCOPED_SESSIONS = new ScopedSessions(WD_CONFIG, BaseListener::dispose);
+    private static final AtomicReference<ExecutorService> WARM_UP_EXECUTOR = new AtomicReference<>();
+    private volatile RoutingTable routingTable = RoutingTable.EMPTY;
 
+    /**
+     * In lazy mode, the very first call creates a browser session for the current test.
+     */
     public static WebDriverContainer getDriverMetaData() {
-        return DRIVER_CONTAINER.get();
+        return ofNullable(DRIVER_CONTAINER.get()).map(handle -> handle.container().get()).orElse(null);
+    }
+
+    /**
+     * @return true, if the current test's session has been already created
+     */
+    public static boolean isDriverMetaDataCreated() {
+        return ofNullable(DRIVER_CONTAINER.get()).map(handle -> handle.container().isEvaluated()).orElse(false);
     }
 
     public List<WebDriverProvider> getWebDriverProviders() {
         return WEB_DRIVER_PROVIDERS;
     }
 
+    public static WebDriverPool getWebDriverPool() {
+        return WEB_DRIVER_POOL;
+    }
+
+    public static TeardownExecutor getTeardownExecutor() {
+        return TEARDOWN_EXECUTOR;
+    }
+
+    public static ScreenshotDispatcher getScreenshotDispatcher() {
+        return SCREENSHOT_DISPATCHER;
+    }
+
+    public static ScopedSessions getScopedSessions() {
+        return SCOPED_SESSIONS;
+    }
+
+    /**
+     * Assigns a browser session to the current test. In lazy mode, session is created only on the first
+     * {@link #getDriverMetaData()} call. Sessions of a wider than method {@link Scope} are taken from the scope first.
+     */
     public void setupDriver(final XmlConfig config, final ITestResult testResult) {
-        var webDriverProviders = getWebDriverProviders();
         var browser = getCurrentBrowser(config);
-        var driver = StreamEx.of(webDriverProviders)
-            .findFirst(this::isWebDriverProviderMatching)
-            .map(wdp -> wdp.createDriver(browser, config))
-            .map(d -> new WebDriverContainer(d, new WebDriverWait(d, ofSeconds(WD_CONFIG.wdWaitTimeout())), config)
-                .withDevToolsService(getDevToolsService(browser, d))
-            )
-            .orElse(null);
-
-        if (driver == null) {
-            throw new SkipException("Unable to find a suitable driver for " + config.toString());
-        }
+        var testClass = testResult.getTestClass().getRealClass();
+        var xmlTest = testResult.getTestContext().getCurrentXmlTest();
+        var scopeId = getDriverScope(config, testClass).getId(xmlTest, testClass);
+        var screencast = new AtomicReference<ScreencastRecorder>();
+        var driver = Lazy.of(() -> {
+            var container = ofNullable(scopeId).flatMap(id -> SCOPED_SESSIONS.acquire(id, config))
+                .or(() -> WEB_DRIVER_POOL.acquire(config))
+                .or(() -> createContainer(browser, config))
+                .orElseThrow(() -> new SkipException("Unable to find a suitable driver for " + config.toString()));
+            injectSessionId(container, testResult);
+            COMMAND_METRICS.collect(container);
+            startScreencast(container, screencast);
+            return container;
+        });
 
-        DRIVER_CONTAINER.set(driver);
-        injectSessionId(testResult);
+        if (!WD_CONFIG.driverLazy()) {
+            driver.get();
+        }
+        DRIVER_CONTAINER.set(new DriverHandle(driver, scopeId, screencast));
     }
 
     public void cleanUp(final ITestResult testResult) {
-        ofNullable(getDriverMetaData())
-            .ifPresent(md -> {
-                ofNullable(md.getDevToolsService()).ifPresent(cdp -> Try.run(cdp::close));
-                var driver = md.getWebDriver();
-                takeScreenshot(driver, testResult);
-                Try.run(driver::quit);
+        ofNullable(DRIVER_CONTAINER.get())
+            .filter(handle -> handle.container().isEvaluated())
+            .ifPresent(handle -> {
+                var md = handle.container().get();
+                ofNullable(handle.screencast().get()).ifPresent(recorder -> recorder.stop(testResult));
+                takeScreenshot(md, testResult);
+                COMMAND_METRICS.collect(md)
+                               .ifPresent(stats -> testResult.setAttribute(COMMAND_METRICS_ATTRIBUTE, stats));
+                if (handle.scopeId() != null) {
+                    SCOPED_SESSIONS.release(handle.scopeId(), md);
+                } else {
+                    dispose(md);
+                }
             });
         DRIVER_CONTAINER.remove();
     }
 
+    /**
+     * Closes sessions of a finished class, test or suite scope.
+     */
+    public void closeDriverScope(final String scopeId) {
+        SCOPED_SESSIONS.close(scopeId);
+    }
+
+    public void closeDriverScopes() {
+        SCOPED_SESSIONS.closeAll();
+    }
+
+    /**
+     * Creates sessions for each distinct browser configuration found in suite in background.
+     * The amount of sessions per configuration defaults to suite's thread count.
+     */
+    public void warmUpWebDrivers(final XmlSuite xmlSuite) {
+        if (!WD_CONFIG.poolWarmUp()) {
+            return;
+        }
+
+        var size = WD_CONFIG.poolWarmUpSize() > 0 ? WD_CONFIG.poolWarmUpSize() : xmlSuite.getThreadCount();
+        var executor = Executors.newFixedThreadPool(size, daemonThreadFactory("wd-warm-up"));
+        ofNullable(WARM_UP_EXECUTOR.getAndSet(executor)).ifPresent(ExecutorService::shutdownNow);
+        getSuiteBrowserConfigurations(xmlSuite).forEach(config -> IntStreamEx.range(size).forEach(i ->
+            WEB_DRIVER_POOL.warmUp(config, () -> Try.of(() -> createContainer(getCurrentBrowser(config), config))
+                                                      .onFailure(ex -> log.warn("Unable to warm up {} session",
+                                                                                config.getSessionKey(), ex))
+                                                      .getOrElse(Optional.empty()), executor)
+        ));
+    }
+
+    /**
+     * Lets pending warm-ups complete within wd.pool.warmup.timeout, so that their sessions are disposed with the rest
+     * of the pool instead of being leaked.
+     */
+    public void shutdownWebDriverPool() {
+        ofNullable(WARM_UP_EXECUTOR.getAndSet(null)).ifPresent(executor -> {
+            executor.shutdown();
+            if (!awaitTermination(executor, WD_CONFIG.poolWarmUpTimeout())) {
+                log.warn("Warm-up sessions are not created within {} sec", WD_CONFIG.poolWarmUpTimeout());
+                executor.shutdownNow();
+            }
+        });
+        WEB_DRIVER_POOL.clear();
+    }
+
+    /**
+     * Reports misconfiguration on suite start, instead of silently degrading or failing each test.
+     *
+     * @throws IllegalArgumentException if some setting or driverScope xml parameter has an unsupported value
+     */
+    public void validateSettings(final XmlSuite xmlSuite) {
+        WEB_DRIVER_POOL.validate();
+        SCOPED_SESSIONS.validate();
+        validateDriverScope("wd.driver.scope", WD_CONFIG.driverScope());
+        validateDriverScope("driverScope parameter of " + xmlSuite.getName(),
+                            xmlSuite.getParameter(XmlConfig.DRIVER_SCOPE));
+        StreamEx.of(xmlSuite.getTests()).forEach(xmlTest -> validateDriverScope(
+            "driverScope parameter of " + xmlTest.getName(), xmlTest.getLocalParameters().get(XmlConfig.DRIVER_SCOPE)
+        ));
+    }
+
+    public void openTeardown() {
+        TEARDOWN_EXECUTOR.open();
+    }
+
+    public void drainTeardown() {
+        TEARDOWN_EXECUTOR.drain();
+    }
+
+    public void flushScreenshots() {
+        SCREENSHOT_DISPATCHER.flush();
+        StreamEx.of(SCREENSHOT_CONSUMERS).forEach(ScreenshotStreamConsumer::flush);
+    }
+
+    public void shutdownVisualCheck() {
+        VISUAL_CHECK.shutdown();
+    }
+
+    /**
+     * Loads SPI implementations and builds browsers' and providers' routing table. Repeated calls replace
+     * previously loaded implementations.
+     */
     public void loadServiceProviders() {
         var loader = getClass().getClassLoader();
-        BROWSERS.addAll(load(Browser.class, loader));
-        WEB_DRIVER_PROVIDERS.addAll(load(WebDriverProvider.class, loader));
-        SCREENSHOT_CONSUMERS.addAll(load(ScreenshotConsumer.class, loader));
+        replace(BROWSERS, load(Browser.class, loader));
+        replace(WEB_DRIVER_PROVIDERS, load(WebDriverProvider.class, loader));
+        replace(SCREENSHOT_CONSUMERS, StreamEx.of(load(ScreenshotConsumer.class, loader))
+                                              .map(ScreenshotStreamConsumer::of)
+                                              .append(load(ScreenshotStreamConsumer.class, loader))
+                                              .toList());
+        DRIVER_METRICS.setSinks(load(MetricsSink.class, loader));
+        var providers = getWebDriverProviders();
+        StreamEx.of(providers).forEach(wdp -> wdp.prepare(BROWSERS));
+        routingTable = RoutingTable.of(BROWSERS, providers);
     }
 
     public void unloadServiceProviders() {
+        routingTable = RoutingTable.EMPTY;
         BROWSERS.clear();
         WEB_DRIVER_PROVIDERS.clear();
         SCREENSHOT_CONSUMERS.clear();
+        DRIVER_METRICS.setSinks(List.of());
+        SHARED_HTTP_CLIENTS.shutdown();
+    }
+
+    /**
+     * Hands collected timings over to metrics sinks' summaries.
+     */
+    public void reportMetrics() {
+        DRIVER_METRICS.onFinish();
+        Try.run(COMMAND_METRICS::report).onFailure(ex -> log.warn("Unable to report WebDriver commands' timings", ex));
+    }
+
+    private Optional<WebDriverContainer> createContainer(final Browser browser, final XmlConfig config) {
+        return routingTable.getProvider().map(wdp -> {
+            var tags = new MetricsSink.Tags(browser.name().getBrowserName(), wdp.label(), browser.isRemote());
+            var event = DriverEvents.begin(new DriverEvents.Create());
+            var start = System.nanoTime();
+            var driver = COMMAND_METRICS.instrument(wdp.createDriver(browser, config));
+            DRIVER_METRICS.record(MetricsSink.Phase.CREATE_DRIVER, tags, System.nanoTime() - start);
+            event.complete(tags, DriverEvents.sessionIdOf(driver), config.getTestName());
+            var wait = new WebDriverWait(driver, ofSeconds(WD_CONFIG.wdWaitTimeout()));
+            return new WebDriverContainer(driver, wait, config)
+                .withDevToolsService(getDevToolsConnector(browser, driver, tags, config))
+                .withTags(tags);
+        });
     }
 
     private Browser getCurrentBrowser(final XmlConfig config) {
-        return StreamEx.of(BROWSERS)
-            .findFirst(b -> b.name().getBrowserName().equals(config.getBrowser()))
+        return routingTable.getBrowser(config.getBrowser())
             .orElseThrow(() -> new SkipException("Unable to find implementation class for "
                                                  + config.getBrowser() + " browser."));
     }
 
-    private ChromeDevToolsService getDevToolsService(final Browser browser, final WebDriver driver) {
-        return CDP.class.isAssignableFrom(browser.getClass()) && driver instanceof RemoteWebDriver rwd
-               ? ((CDP) browser).initCDP((rwd).getSessionId().toString()) : null;
+    /**
+     * DevTools connection is opened only when a test asks for it. Connection time is measured on the first call.
+     */
+    private Supplier<ChromeDevToolsService> getDevToolsConnector(
+        final Browser browser,
+        final WebDriver driver,
+        final MetricsSink.Tags tags,
+        final XmlConfig config
+    ) {
+        if (browser instanceof CDP cdp && driver instanceof RemoteWebDriver rwd) {
+            var sessionId = rwd.getSessionId().toString();
+            return () -> {
+                var event = DriverEvents.begin(new DriverEvents.CdpInit());
+                var start = System.nanoTime();
+                try {
+                    return cdp.openCDP(sessionId);
+                } finally {
+                    DRIVER_METRICS.record(MetricsSink.Phase.INIT_CDP, tags, System.nanoTime() - start);
+                    event.complete(tags, sessionId, config.getTestName());
+                }
+            };
+        }
+        return null;
     }
 
-    private boolean isWebDriverProviderMatching(final WebDriverProvider provider) {
-        var webDriverProviders = getWebDriverProviders();
-        return (webDriverProviders.size() == 1 && WDP_DEFAULT.equals(provider.label()))
-               || (webDriverProviders.size() > 1 && !WDP_DEFAULT.equals(provider.label()));
+    /**
+     * Class annotation takes precedence over xml parameter, which in turn overrides global setting.
+     */
+    private Scope getDriverScope(final XmlConfig config, final Class<?> testClass) {
+        return ofNullable(testClass.getAnnotation(DriverScope.class))
+            .map(DriverScope::value)
+            .or(() -> config.getDriverScope().map(Scope::of))
+            .orElseGet(() -> Scope.of(WD_CONFIG.driverScope()));
     }
 
-    private void injectSessionId(final ITestResult testResult) {
-        ofNullable(DRIVER_CONTAINER.get())
-            .map(WebDriverContainer::getWebDriver)
+    private static void validateDriverScope(final String source, final String value) {
+        try {
+            ofNullable(value).ifPresent(Scope::of);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid " + source + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void dispose(final WebDriverContainer container) {
+        if (!WEB_DRIVER_POOL.release(container)) {
+            TEARDOWN_EXECUTOR.submit(container);
+        }
+    }
+
+    private static boolean awaitTermination(final ExecutorService executor, final long timeout) {
+        try {
+            return executor.awaitTermination(timeout, SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static <T> void replace(final List<T> target, final List<T> items) {
+        target.clear();
+        target.addAll(items);
+    }
+
+    private void injectSessionId(final WebDriverContainer container, final ITestResult testResult) {
+        ofNullable(container.getWebDriver())
             .filter(RemoteWebDriver.class::isInstance)
             .map(d -> ((RemoteWebDriver) d).getSessionId())
             .ifPresent(id -> testResult.setAttribute("sessionId", id));
     }
 
-    private void takeScreenshot(final WebDriver driver, final ITestResult testResult) {
+    private void takeScreenshot(final WebDriverContainer container, final ITestResult testResult) {
         if (WD_CONFIG.takeScreenshot()) {
-            var screenshot = ((TakesScreenshot) driver).getScreenshotAs(BYTES);
-            StreamEx.of(SCREENSHOT_CONSUMERS).forEach(sc -> sc.handle(screenshot, testResult));
+            var driver = container.getWebDriver();
+            var event = DriverEvents.begin(new DriverEvents.ScreenshotCapture());
+            var start = System.nanoTime();
+            var screenshot = SCREENSHOT_CAPTURE.capture(container);
+            DRIVER_METRICS.record(MetricsSink.Phase.SCREENSHOT, container.getTags(), System.nanoTime() - start);
+            event.complete(container.getTags(), DriverEvents.sessionIdOf(driver), container.getConfig().getTestName());
+            if (WD_CONFIG.visualEnabled()) {
+                var checkStart = System.nanoTime();
+                Try.run(() -> VISUAL_CHECK.check(screenshot, testResult))
+                   .onFailure(ex -> log.warn("Unable to compare a screenshot with baseline", ex));
+                var elapsed = System.nanoTime() - checkStart;
+                DRIVER_METRICS.record(MetricsSink.Phase.VISUAL_DIFF, container.getTags(), elapsed);
+            }
+            SCREENSHOT_DISPATCHER.dispatch(screenshot, testResult, SCREENSHOT_CONSUMERS, container.getTags());
         }
     }
+
+    /**
+     * Screencast is recorded only for CDP browsers, and saved only for failed tests.
+     */
+    private void startScreencast(
+        final WebDriverContainer container,
+        final AtomicReference<ScreencastRecorder> screencast
+    ) {
+        if (WD_CONFIG.screencastEnabled() && container.isDevToolsSupported()) {
+            Try.of(() -> ScreencastRecorder.start(container.getDevToolsService(), WD_CONFIG))
+               .onFailure(ex -> log.warn("Unable to start screencast of {}", container.getConfig().getTestName(), ex))
+               .forEach(screencast::set);
+        }
+    }
+
+    private record DriverHandle(
+        Lazy<WebDriverContainer> container,
+        String scopeId,
+        AtomicReference<ScreencastRecorder> screencast
+    ) {
+    }
 }
@@ -1,55 +1,57 @@
 package io.github.sskorol.listeners;
 
-import io.github.sskorol.config.XmlConfig;
-import one.util.streamex.StreamEx;
+import io.github.sskorol.core.Scope;
 import org.testng.*;
 
-import java.util.*;
-
-import static io.github.sskorol.utils.TestNGUtils.getBrowserConfiguration;
+import static io.github.sskorol.utils.TestNGUtils.getConfigurationIndex;
 
 /**
  * Key listener which should be included on client side. Creates / cleans WebDrivers before/after test invocation.
  */
 @SuppressWarnings("FinalLocalVariable")
-public class BeforeMethodListener extends BaseListener implements IInvokedMethodListener, ISuiteListener {
+public class BeforeMethodListener extends BaseListener
+    implements IInvokedMethodListener, ISuiteListener, IClassListener, ITestListener {
 
     @Override
     public void onStart(final ISuite suite) {
+        validateSettings(suite.getXmlSuite());
         loadServiceProviders();
+        openTeardown();
+        warmUpWebDrivers(suite.getXmlSuite());
     }
 
     @Override
     public void onFinish(final ISuite suite) {
+        flushScreenshots();
+        shutdownVisualCheck();
+        closeDriverScopes();
+        shutdownWebDriverPool();
+        drainTeardown();
+        reportMetrics();
         unloadServiceProviders();
     }
 
+    @Override
+    public void onAfterClass(final ITestClass testClass) {
+        closeDriverScope(Scope.CLASS.getId(testClass.getXmlTest(), testClass.getRealClass()));
+    }
+
+    @Override
+    public void onFinish(final ITestContext context) {
+        closeDriverScope(Scope.TEST.getId(context.getCurrentXmlTest(), null));
+    }
+
     @Override
     public void beforeInvocation(final IInvokedMethod method, final ITestResult testResult) {
         if (method.isTestMethod()) {
-            var configs = getBrowserConfiguration(
-                testResult.getTestContext().getCurrentXmlTest(), method
-            ).toList();
-
-            var customParameters = StreamEx.of(configs)
-                                           .filter(Optional::isPresent)
-                                           .map(Optional::get)
-                                           .map(XmlConfig::getCustomParameters)
-                                           .reduce(new HashMap<>(), (map, parameters) -> {
-                                               map.putAll(parameters);
-                                               return map;
-                                           });
-
-            var config = StreamEx.of(configs)
-                                 .filter(Optional::isPresent)
-                                 .map(Optional::get)
-                                 .findFirst(XmlConfig::hasBrowser)
-                                 .map(xmlConfig -> xmlConfig.extendParameters(customParameters))
-                                 .orElseThrow(() -> new SkipException(
-                                     "Unable to find a valid browser configuration. "
-                                     + "Check if SPI implementation class is provided, "
-                                     + "and browserName parameter is specified in xml."
-                                 ));
+            var testMethod = method.getTestMethod().getConstructorOrMethod().getMethod();
+            var config = getConfigurationIndex(testResult.getTestContext())
+                .get(testMethod)
+                .orElseThrow(() -> new SkipException(
+                    "Unable to find a valid browser configuration. "
+                    + "Check if SPI implementation class is provided, "
+                    + "and browserName parameter is specified in xml."
+                ));
             setupDriver(config, testResult);
         }
     }
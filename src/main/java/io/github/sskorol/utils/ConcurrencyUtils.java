@@ -0,0 +1,23 @@
+package io.github.sskorol.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A helper class for library's background workers.
+ */
+public final class ConcurrencyUtils {
+
+    private ConcurrencyUtils() {
+        throw new UnsupportedOperationException("Illegal access to private constructor");
+    }
+
+    public static ThreadFactory daemonThreadFactory(final String prefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.sskorol.utils;
+
+import io.github.sskorol.config.XmlConfig;
+import one.util.streamex.StreamEx;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.sskorol.utils.TestNGUtils.*;
+import static java.util.Locale.ROOT;
+
+/**
+ * Precompiled browser configurations' lookup table of a single xml test. Classes and included methods are indexed
+ * once, and each method's merged configuration is resolved only on the first access. Lookup rules are the same as
+ * {@link TestNGUtils#getBrowserConfiguration} has.
+ */
+@SuppressWarnings("FinalLocalVariable")
+public class ConfigurationIndex {
+
+    private final XmlTest xmlTest;
+    private final Map<String, List<ClassEntry>> classes = new HashMap<>();
+    private final Map<Method, Optional<XmlConfig>> configs = new ConcurrentHashMap<>();
+
+    public ConfigurationIndex(final XmlTest xmlTest) {
+        this.xmlTest = xmlTest;
+        StreamEx.of(xmlTest.getClasses()).forEach(xmlClass -> {
+            final Map<String, XmlInclude> includes = new LinkedHashMap<>();
+            StreamEx.of(xmlClass.getIncludedMethods())
+                    .forEach(include -> includes.putIfAbsent(include.getName(), include));
+            classes.computeIfAbsent(xmlClass.getName().toLowerCase(ROOT), name -> new ArrayList<>())
+                   .add(new ClassEntry(xmlClass, includes));
+        });
+    }
+
+    /**
+     * @return merged immutable configuration, or empty Optional, if there's no browser specified for a given method
+     */
+    public Optional<XmlConfig> get(final Method method) {
+        var config = configs.get(method);
+        return config != null ? config : configs.computeIfAbsent(method, this::resolve);
+    }
+
+    private Optional<XmlConfig> resolve(final Method method) {
+        var entries = classes.getOrDefault(method.getDeclaringClass().getName().toLowerCase(ROOT), List.of());
+        var methodConfig = StreamEx.of(entries)
+                                   .map(entry -> entry.includes().get(method.getName()))
+                                   .nonNull()
+                                   .findFirst()
+                                   .map(XmlInclude::getAllParameters)
+                                   .map(parameters -> mapConfiguration(parameters, method));
+        var classConfig = StreamEx.of(entries)
+                                  .findFirst(entry -> entry.includes().isEmpty()
+                                                      || entry.includes().containsKey(method.getName()))
+                                  .map(entry -> entry.xmlClass().getAllParameters())
+                                  .map(parameters -> mapConfiguration(parameters, method));
+        return resolveConfiguration(List.of(
+            methodConfig,
+            classConfig,
+            getTestGroupBrowserConfiguration(xmlTest, method),
+            getSuiteBrowserConfiguration(xmlTest.getSuite(), method)
+        ));
+    }
+
+    private record ClassEntry(XmlClass xmlClass, Map<String, XmlInclude> includes) {
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.sskorol.utils;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Bounded ring buffer of the most recent frames. Frames, which don't fit into a memory cap, are evicted on insertion,
+ * so that heap usage never exceeds the cap. Frames, which are older than a time window, are evicted on insertion and
+ * drain. So when no new frames arrive, e.g. on a static page, stale ones are kept until drain: the memory cap is the
+ * actual heap bound, while the window defines what's recorded.
+ */
+@RequiredArgsConstructor
+@SuppressWarnings("FinalLocalVariable")
+public class FrameBuffer {
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final long windowNanos;
+    private final long maxBytes;
+    private long bytes;
+
+    /**
+     * @param timestamp frame's capture time in nanoseconds
+     * @return false if frame exceeds memory cap on its own
+     */
+    public synchronized boolean add(final long timestamp, final byte[] data) {
+        if (data.length > maxBytes) {
+            return false;
+        }
+
+        frames.addLast(new Frame(timestamp, data));
+        bytes += data.length;
+        while (bytes > maxBytes) {
+            bytes -= frames.removeFirst().data().length;
+        }
+        evict(timestamp);
+        return true;
+    }
+
+    /**
+     * Releases frames, which are older than a time window before a given time.
+     *
+     * @param now current time in nanoseconds
+     */
+    public synchronized void evict(final long now) {
+        while (!frames.isEmpty() && now - frames.peekFirst().timestamp() > windowNanos) {
+            bytes -= frames.removeFirst().data().length;
+        }
+    }
+
+    /**
+     * @param now current time in nanoseconds
+     * @return buffered frames within a time window before a given time in capture order, leaving buffer empty
+     */
+    public synchronized List<Frame> drain(final long now) {
+        evict(now);
+        var drained = new ArrayList<>(frames);
+        clear();
+        return drained;
+    }
+
+    public synchronized void clear() {
+        frames.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return frames.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Encoded image with its capture time in nanoseconds.
+     */
+    public record Frame(long timestamp, byte[] data) {
+    }
+}
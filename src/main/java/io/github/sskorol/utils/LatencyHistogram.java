@@ -0,0 +1,111 @@
+package io.github.sskorol.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Lock-free log-linear histogram of latencies in microseconds. Each power of two range is split into 8 buckets,
+ * so reported percentiles are at most 12.5% higher than the actual values.
+ */
+@SuppressWarnings("FinalLocalVariable")
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS * (Long.SIZE - SUB_BUCKET_BITS + 1);
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    public void record(final long nanos) {
+        var micros = Math.max(0, NANOSECONDS.toMicros(nanos));
+        buckets.incrementAndGet(index(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    /**
+     * Adds all the values recorded by another histogram.
+     */
+    public void merge(final LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            var bucket = other.buckets.get(i);
+            if (bucket > 0) {
+                buckets.addAndGet(i, bucket);
+            }
+        }
+        count.add(other.getCount());
+        totalMicros.add(other.getTotalMicros());
+        maxMicros.accumulate(other.getMaxMicros());
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalMicros() {
+        return totalMicros.sum();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * @param percentile value within (0, 100] range
+     * @return bucket's upper bound, which the requested percentile falls into
+     */
+    public long getPercentileMicros(final double percentile) {
+        var total = 0L;
+        var counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+
+        var target = (long) Math.ceil(total * percentile / 100);
+        var accumulated = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += counts[i];
+            if (accumulated >= target && accumulated > 0) {
+                return Math.min(upperBound(i), getMaxMicros());
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return format("count = %d, p50 = %.1f ms, p95 = %.1f ms, p99 = %.1f ms, max = %.1f ms",
+                      getCount(), toMillis(getPercentileMicros(50)), toMillis(getPercentileMicros(95)),
+                      toMillis(getPercentileMicros(99)), toMillis(getMaxMicros()));
+    }
+
+    private static double toMillis(final long micros) {
+        return micros / 1000.0;
+    }
+
+    private static int index(final long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        var shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        return SUB_BUCKETS * (shift + 1) + (int) ((micros >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        var shift = index / SUB_BUCKETS - 1;
+        var subBucket = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
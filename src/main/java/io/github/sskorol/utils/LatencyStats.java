@@ -0,0 +1,50 @@
+package io.github.sskorol.utils;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Lock-free latency counters, which are safe to be updated from multiple threads.
+ */
+public class LatencyStats {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(final long nanos, final boolean failed) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getAverageMillis() {
+        final long total = count.sum();
+        return total == 0 ? 0 : NANOSECONDS.toMillis(totalNanos.sum() / total);
+    }
+
+    public long getMaxMillis() {
+        return NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return format("count = %d, failures = %d, avg = %d ms, max = %d ms",
+                      getCount(), getFailures(), getAverageMillis(), getMaxMillis());
+    }
+}
@@ -3,6 +3,7 @@ package io.github.sskorol.utils;
 import one.util.streamex.StreamEx;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Rectangle;
 
 import java.util.Optional;
 
@@ -26,4 +27,18 @@ public final class StringUtils {
                 .filter(val -> val.length >= 2)
                 .map(val -> new Dimension(val[0], val[1]));
     }
+
+    /**
+     * @param value region in x,y,width,height format
+     */
+    public static Optional<Rectangle> toRectangle(final String value) {
+        return ofNullable(value)
+                .map(val -> StreamEx.of(val.split(","))
+                                    .map(String::trim)
+                                    .filter(NumberUtils::isDigits)
+                                    .mapToInt(Integer::parseInt)
+                                    .toArray())
+                .filter(val -> val.length == 4)
+                .map(val -> new Rectangle(val[0], val[1], val[3], val[2]));
+    }
 }
@@ -3,23 +3,28 @@ package io.github.sskorol.utils;
 import io.github.sskorol.config.XmlConfig;
 import one.util.streamex.StreamEx;
 import org.testng.IInvokedMethod;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlInclude;
 import org.testng.xml.XmlSuite;
 import org.testng.xml.XmlTest;
 
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 import static io.github.sskorol.config.XmlConfig.TEST_NAME;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Optional.ofNullable;
-import static org.joor.Reflect.onClass;
 import static org.openqa.selenium.remote.CapabilityType.*;
 
 @SuppressWarnings({"MissingJavadocType", "FinalLocalVariable"})
 public final class TestNGUtils {
 
+    private static final String CONFIGURATION_INDEX = ConfigurationIndex.class.getName();
+
     private TestNGUtils() {
         throw new UnsupportedOperationException("Illegal access to private constructor");
     }
@@ -36,6 +41,23 @@ public final class TestNGUtils {
         return StreamEx.of(methodConfigs, classConfigs, testConfigs, suiteConfigs);
     }
 
+    /**
+     * Provides a configuration index, which is built once per xml test and stored in test context.
+     */
+    public static ConfigurationIndex getConfigurationIndex(final ITestContext context) {
+        var index = context.getAttribute(CONFIGURATION_INDEX);
+        if (index == null) {
+            synchronized (context) {
+                index = context.getAttribute(CONFIGURATION_INDEX);
+                if (index == null) {
+                    index = new ConfigurationIndex(context.getCurrentXmlTest());
+                    context.setAttribute(CONFIGURATION_INDEX, index);
+                }
+            }
+        }
+        return (ConfigurationIndex) index;
+    }
+
     public static Optional<XmlConfig> getMethodBrowserConfiguration(final XmlTest xmlTest, final Method method) {
         return StreamEx.of(xmlTest.getClasses())
                        .filter(xmlClass -> xmlClass.getName().equalsIgnoreCase(method.getDeclaringClass().getName()))
@@ -61,14 +83,44 @@ public final class TestNGUtils {
     }
 
     public static Optional<XmlConfig> getSuiteBrowserConfiguration(final XmlSuite xmlSuite, final Method method) {
-        final Map<String, String> parameters = new HashMap<>();
-        ofNullable(xmlSuite.getParameter(BROWSER_NAME)).ifPresent(val -> parameters.put(BROWSER_NAME, val));
-        ofNullable(xmlSuite.getParameter(BROWSER_VERSION)).ifPresent(val -> parameters.put(BROWSER_VERSION, val));
-        ofNullable(xmlSuite.getParameter(PLATFORM_NAME)).ifPresent(val -> parameters.put(PLATFORM_NAME, val));
+        final Map<String, String> parameters = getSuiteParameters(xmlSuite);
         parameters.putIfAbsent(TEST_NAME, method.getName());
         return Optional.of(new XmlConfig(unmodifiableMap(parameters)));
     }
 
+    /**
+     * Merges method, class, test and suite level configurations. The first one with a browser wins.
+     */
+    public static Optional<XmlConfig> resolveConfiguration(final List<Optional<XmlConfig>> configs) {
+        var customParameters = StreamEx.of(configs)
+                                       .filter(Optional::isPresent)
+                                       .map(Optional::get)
+                                       .map(XmlConfig::getCustomParameters)
+                                       .reduce(new HashMap<String, String>(), (map, parameters) -> {
+                                           map.putAll(parameters);
+                                           return map;
+                                       });
+
+        return StreamEx.of(configs)
+                       .filter(Optional::isPresent)
+                       .map(Optional::get)
+                       .findFirst(XmlConfig::hasBrowser)
+                       .map(xmlConfig -> xmlConfig.withParameters(customParameters));
+    }
+
+    /**
+     * Collects distinct browser configurations, which are declared on any level of a suite.
+     */
+    public static StreamEx<XmlConfig> getSuiteBrowserConfigurations(final XmlSuite xmlSuite) {
+        return StreamEx.of(xmlSuite.getTests())
+                       .flatMap(xmlTest -> StreamEx.of(xmlTest.getClasses())
+                           .flatMap(xmlClass -> getClassConfigurations(xmlTest, xmlClass)))
+                       .map(TestNGUtils::resolveConfiguration)
+                       .filter(Optional::isPresent)
+                       .map(Optional::get)
+                       .distinct(XmlConfig::getSessionKey);
+    }
+
     public static boolean isMethodPresent(final XmlClass xmlClass, final Method method) {
         if (!xmlClass.getName().equalsIgnoreCase(method.getDeclaringClass().getName())) {
             return false;
@@ -80,8 +132,55 @@ public final class TestNGUtils {
         );
     }
 
+    private static StreamEx<List<Optional<XmlConfig>>> getClassConfigurations(
+        final XmlTest xmlTest,
+        final XmlClass xmlClass
+    ) {
+        var methods = xmlClass.getIncludedMethods();
+        var lowestLevelParameters = methods.isEmpty()
+                                    ? StreamEx.of(xmlClass.getAllParameters())
+                                    : StreamEx.of(methods).map(XmlInclude::getAllParameters);
+        return lowestLevelParameters.map(parameters -> List.of(
+            Optional.of(new XmlConfig(parameters)),
+            Optional.of(new XmlConfig(xmlClass.getAllParameters())),
+            Optional.of(new XmlConfig(xmlTest.getAllParameters())),
+            Optional.of(new XmlConfig(unmodifiableMap(getSuiteParameters(xmlTest.getSuite()))))
+        ));
+    }
+
+    private static Map<String, String> getSuiteParameters(final XmlSuite xmlSuite) {
+        final Map<String, String> parameters = new HashMap<>();
+        ofNullable(xmlSuite.getParameter(BROWSER_NAME)).ifPresent(val -> parameters.put(BROWSER_NAME, val));
+        ofNullable(xmlSuite.getParameter(BROWSER_VERSION)).ifPresent(val -> parameters.put(BROWSER_VERSION, val));
+        ofNullable(xmlSuite.getParameter(PLATFORM_NAME)).ifPresent(val -> parameters.put(PLATFORM_NAME, val));
+        return parameters;
+    }
+
     public static XmlConfig mapConfiguration(final Map<String, String> parameters, final Method method) {
         parameters.putIfAbsent(TEST_NAME, method.getName());
-        return onClass(XmlConfig.class).create(parameters).get();
+        return new XmlConfig(parameters);
+    }
+
+    /**
+     * @return relative suite/test/Class.method path, which identifies test's artifacts
+     */
+    public static Path getResultPath(final ITestResult testResult) {
+        var context = ofNullable(testResult.getTestContext());
+        var method = ofNullable(testResult.getMethod())
+            .map(m -> Optional.<Class<?>>ofNullable(m.getRealClass())
+                              .map(type -> type.getSimpleName() + ".")
+                              .orElse("") + m.getMethodName())
+            .orElseGet(testResult::getName);
+        return Paths.get(
+            toPathSegment(context.map(c -> c.getSuite().getName()).orElse(null)),
+            toPathSegment(context.map(ITestContext::getName).orElse(null)),
+            toPathSegment(method)
+        );
+    }
+
+    private static String toPathSegment(final String name) {
+        return ofNullable(name).filter(n -> !n.isBlank())
+                               .map(n -> n.replaceAll("[^A-Za-z0-9._-]", "_"))
+                               .orElse("default");
     }
 }
@@ -0,0 +1,29 @@
+package io.github.sskorol.config;
+
+import io.github.sskorol.core.MetricsSink;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Collections.unmodifiableList;
+
+public class MockMetricsSink implements MetricsSink {
+
+    private static final List<Record> RECORDS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void record(final Phase phase, final Tags tags, final long nanos) {
+        RECORDS.add(new Record(phase, tags));
+    }
+
+    public static List<Record> getRecords() {
+        return unmodifiableList(RECORDS);
+    }
+
+    public static void clearRecords() {
+        RECORDS.clear();
+    }
+
+    public record Record(Phase phase, Tags tags) {
+    }
+}
@@ -8,9 +8,11 @@ import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.remote.SessionId;
 
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 public class MockWDFactory implements WebDriverProvider {
 
@@ -21,8 +23,9 @@ public class MockWDFactory implements WebDriverProvider {
 
     @Override
     public WebDriver createDriver(final Browser browser, final XmlConfig config) {
-        final RemoteWebDriver driver = mock(RemoteWebDriver.class);
-        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(new byte[]{1, 2, 3});
+        final RemoteWebDriver driver = mock(RemoteWebDriver.class, RETURNS_DEEP_STUBS);
+        doAnswer(invocation -> invocation.<OutputType<?>>getArgument(0).convertFromPngBytes(new byte[]{1, 2, 3}))
+            .when(driver).getScreenshotAs(any());
         doReturn(new SessionId(randomAlphanumeric(14))).when(driver).getSessionId();
         return driver;
     }
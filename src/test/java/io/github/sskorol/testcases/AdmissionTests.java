@@ -0,0 +1,92 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.core.AdmissionControl;
+import io.github.sskorol.core.MetricsSink;
+import org.aeonbits.owner.ConfigFactory;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+import static org.mockito.Mockito.mock;
+
+public class AdmissionTests {
+
+    private static final String GRID = "http://localhost:4444/wd/hub";
+    private static final MetricsSink.Tags TAGS = new MetricsSink.Tags("chrome", "wdp_default", true);
+
+    @Test
+    public void shouldNotLimitSessionsByDefault() {
+        var admission = new AdmissionControl(config(Map.of()));
+
+        admission.admit(GRID, TAGS, () -> mock(RemoteWebDriver.class));
+        admission.admit(GRID, TAGS, () -> mock(RemoteWebDriver.class));
+
+        assertThat(admission.getActiveSessions(GRID)).isZero();
+    }
+
+    @Test
+    public void shouldQueueSessionsUntilSlotIsReleased() throws InterruptedException {
+        var admission = new AdmissionControl(config(Map.of("wd.remote.max.sessions", "1")));
+        var first = admission.admit(GRID, TAGS, () -> mock(RemoteWebDriver.class));
+
+        var second = CompletableFuture.supplyAsync(
+            () -> admission.admit(GRID, TAGS, () -> mock(RemoteWebDriver.class))
+        );
+        awaitQueue(admission, 1);
+        assertThat(second).isNotDone();
+        assertThat(admission.admit("http://localhost:5555/wd/hub", TAGS, () -> mock(RemoteWebDriver.class)))
+            .isNotNull();
+
+        admission.release(first);
+
+        assertThat(second.join()).isNotNull();
+        assertThat(admission.getActiveSessions(GRID)).isEqualTo(1);
+        assertThat(admission.getQueueLength(GRID)).isZero();
+    }
+
+    @Test
+    public void shouldFailWhenNoSlotIsReleasedInTime() {
+        var admission = new AdmissionControl(config(Map.of(
+            "wd.remote.max.sessions", "1",
+            "wd.remote.admission.timeout", "1"
+        )));
+        admission.admit(GRID, TAGS, () -> mock(RemoteWebDriver.class));
+
+        assertThat(catchThrowable(() -> admission.admit(GRID, TAGS, () -> mock(RemoteWebDriver.class))))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining(GRID);
+    }
+
+    @Test
+    public void shouldReleaseSlotOnSessionCreationFailure() {
+        var admission = new AdmissionControl(config(Map.of("wd.remote.max.sessions", "1")));
+
+        assertThat(catchThrowable(() -> admission.admit(GRID, TAGS, () -> {
+            throw new SessionNotCreatedException("Grid is busy");
+        }))).isInstanceOf(SessionNotCreatedException.class);
+
+        WebDriver driver = admission.admit(GRID, TAGS, () -> mock(RemoteWebDriver.class));
+        assertThat(admission.getActiveSessions(GRID)).isEqualTo(1);
+        admission.release(driver);
+        admission.release(driver);
+        assertThat(admission.getActiveSessions(GRID)).isZero();
+    }
+
+    private void awaitQueue(final AdmissionControl admission, final int length) throws InterruptedException {
+        for (int i = 0; i < 100 && admission.getQueueLength(GRID) != length; i++) {
+            Thread.sleep(50);
+        }
+        assertThat(admission.getQueueLength(GRID)).isEqualTo(length);
+    }
+
+    private WebDriverConfig config(final Map<String, String> properties) {
+        return ConfigFactory.create(WebDriverConfig.class, properties);
+    }
+}
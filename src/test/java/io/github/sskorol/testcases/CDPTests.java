@@ -3,12 +3,16 @@ package io.github.sskorol.testcases;
 import io.github.sskorol.cdt.services.ChromeDevToolsService;
 import io.github.sskorol.cdt.services.impl.ChromeDevToolsServiceImpl;
 import io.github.sskorol.core.CDP;
+import io.github.sskorol.core.WebDriverContainer;
 import org.mockito.Mockito;
+import org.openqa.selenium.remote.RemoteWebDriver;
 import org.testng.annotations.Test;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
 import static org.mockito.Mockito.*;
 
 public class CDPTests {
@@ -38,4 +42,64 @@ public class CDPTests {
             }
         }
     }
+
+    @Test
+    public void shouldReportDevToolsConnectionFailure() {
+        var sessionId = UUID.randomUUID().toString();
+        assertThat(catchThrowable(() -> new CDPImpl().connectCDP(sessionId)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining(sessionId)
+            .hasCauseInstanceOf(Exception.class);
+    }
+
+    @Test
+    public void shouldKeepDevToolsConnectionFailureCauseOnOpen() {
+        var sessionId = UUID.randomUUID().toString();
+        assertThat(catchThrowable(() -> new CDPImpl().openCDP(sessionId)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining(sessionId)
+            .hasCauseInstanceOf(Exception.class);
+    }
+
+    @Test
+    public void shouldOpenDevToolsViaOverriddenInit() {
+        var devTools = mock(ChromeDevToolsService.class);
+        var cdp = new CDPImpl() {
+            @Override
+            public ChromeDevToolsService initCDP(final String sessionId) {
+                return devTools;
+            }
+        };
+
+        assertThat(cdp.openCDP(UUID.randomUUID().toString())).isSameAs(devTools);
+    }
+
+    @Test
+    public void shouldConnectToDevToolsOnFirstUse() {
+        var devTools = mock(ChromeDevToolsService.class);
+        var connections = new AtomicInteger();
+        var container = new WebDriverContainer(mock(RemoteWebDriver.class), null, null)
+            .withDevToolsService(() -> {
+                connections.incrementAndGet();
+                return devTools;
+            });
+
+        assertThat(container.isDevToolsSupported()).isTrue();
+        assertThat(container.isDevToolsServiceOpened()).isFalse();
+        assertThat(container.getOpenedDevToolsService()).isEmpty();
+        assertThat(container.getDevToolsService()).isSameAs(devTools);
+        assertThat(container.withConfig(null).getDevToolsService()).isSameAs(devTools);
+        assertThat(container.getOpenedDevToolsService()).containsSame(devTools);
+        assertThat(connections).hasValue(1);
+    }
+
+    @Test
+    public void shouldFailExplicitlyWithoutDevToolsSupport() {
+        var container = new WebDriverContainer(mock(RemoteWebDriver.class), null, null);
+
+        assertThat(container.isDevToolsSupported()).isFalse();
+        assertThat(catchThrowable(container::getDevToolsService))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("CDP");
+    }
 }
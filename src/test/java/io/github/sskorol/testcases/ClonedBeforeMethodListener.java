@@ -18,7 +18,7 @@ public class ClonedBeforeMethodListener extends BeforeMethodListener {
         getResultsContainer().add(new MetaDataContainer(
             driverMetaData.getWebDriver() != null,
             driverMetaData.getWebDriverWait() != null,
-            driverMetaData.getDevToolsService() != null,
+            driverMetaData.isDevToolsServiceOpened(),
             driverMetaData.getConfig()));
     }
 
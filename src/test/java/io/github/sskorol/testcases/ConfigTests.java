@@ -1,18 +1,27 @@
 package io.github.sskorol.testcases;
 
 import io.github.sskorol.config.XmlConfig;
+import io.github.sskorol.utils.ConfigurationIndex;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.Platform;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.WebDriverException;
 import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
 import static io.github.sskorol.config.XmlConfig.TEST_NAME;
 import static io.github.sskorol.utils.StringUtils.toDimension;
+import static io.github.sskorol.utils.StringUtils.toRectangle;
+import static io.github.sskorol.utils.TestNGUtils.getSuiteBrowserConfigurations;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.openqa.selenium.remote.CapabilityType.*;
 
@@ -52,6 +61,13 @@ public class ConfigTests {
         assertThat(toDimension("1280")).isEmpty();
     }
 
+    @Test
+    public void shouldConvertToRectangle() {
+        assertThat(toRectangle("10, 20, 800, 600")).isEqualTo(Optional.of(new Rectangle(10, 20, 600, 800)));
+        assertThat(toRectangle("800x600")).isEmpty();
+        assertThat(toRectangle("")).isEmpty();
+    }
+
     @Test
     public void shouldWrapMainXmlParameters() {
         final Map<String, String> parameters = new HashMap<>();
@@ -170,4 +186,71 @@ public class ConfigTests {
     public void shouldProvideRandomTestNameOnMissingParameter() {
         assertThat(new XmlConfig(new HashMap<>()).getTestName()).isNotBlank();
     }
+
+    @Test
+    public void shouldCollectDistinctSuiteBrowserConfigurations() {
+        var suite = new XmlSuite();
+        suite.setParameters(Map.of(BROWSER_NAME, "chrome", PLATFORM_NAME, "LINUX"));
+
+        var test = new XmlTest(suite);
+        var firstClass = xmlClass(test, "io.github.sskorol.testcases.FactoryTests1");
+        var secondClass = xmlClass(test, "io.github.sskorol.testcases.FactoryTests2");
+        firstClass.setIncludedMethods(List.of(
+            xmlInclude(firstClass, "test1", Map.of(BROWSER_NAME, "firefox")),
+            xmlInclude(firstClass, "test2", Map.of(BROWSER_NAME, "firefox")),
+            xmlInclude(firstClass, "test3", Map.of())
+        ));
+        test.setXmlClasses(List.of(firstClass, secondClass));
+
+        assertThat(getSuiteBrowserConfigurations(suite).map(XmlConfig::toString).toList())
+            .containsExactlyInAnyOrder("firefox LINUX", "chrome LINUX");
+    }
+
+    @Test
+    public void shouldResolveConfigurationsViaIndex() throws NoSuchMethodException {
+        var suite = new XmlSuite();
+        suite.setParameters(Map.of(BROWSER_NAME, "chrome", PLATFORM_NAME, "LINUX"));
+
+        var test = new XmlTest(suite);
+        var xmlClass = xmlClass(test, "io.github.sskorol.testcases.FactoryTests1");
+        xmlClass.setIncludedMethods(List.of(
+            xmlInclude(xmlClass, "test1", Map.of(BROWSER_NAME, "firefox", "feature", "on")),
+            xmlInclude(xmlClass, "test2", Map.of())
+        ));
+        test.setXmlClasses(List.of(xmlClass));
+
+        var index = new ConfigurationIndex(test);
+        var test1 = FactoryTests1.class.getMethod("test1");
+        var config = index.get(test1).orElseThrow();
+
+        assertThat(config.toString()).isEqualTo("firefox LINUX");
+        assertThat(config.getTestName()).isEqualTo("test1");
+        assertThat(config.getValue("feature")).contains("on");
+        assertThat(index.get(test1).orElseThrow()).isSameAs(config);
+        assertThat(index.get(FactoryTests1.class.getMethod("test2")).map(XmlConfig::toString)).contains("chrome LINUX");
+        assertThat(index.get(FactoryTests2.class.getMethod("test5"))).isPresent();
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void shouldProvideImmutableMergedConfiguration() {
+        final Map<String, String> parameters = new HashMap<>();
+        parameters.put(BROWSER_NAME, "chrome");
+
+        final XmlConfig config = new XmlConfig(parameters).withParameters(Map.of("key", "value"));
+        assertThat(parameters).doesNotContainKey("key");
+        config.extendParameters(Map.of("key", "other"));
+    }
+
+    private XmlClass xmlClass(final XmlTest test, final String name) {
+        var xmlClass = new XmlClass(name, false);
+        xmlClass.setXmlTest(test);
+        return xmlClass;
+    }
+
+    private XmlInclude xmlInclude(final XmlClass xmlClass, final String name, final Map<String, String> parameters) {
+        var xmlInclude = new XmlInclude(name);
+        xmlInclude.setXmlClass(xmlClass);
+        xmlInclude.setParameters(new HashMap<>(parameters));
+        return xmlInclude;
+    }
 }
@@ -3,15 +3,19 @@ package io.github.sskorol.testcases;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import io.github.sskorol.config.XmlConfig;
 import io.github.sskorol.core.Browser;
+import io.github.sskorol.core.DriverConstructor;
+import io.github.sskorol.core.RoutingTable;
+import io.github.sskorol.core.WebDriverFactory;
 import io.github.sskorol.core.WebDriverProvider;
 import one.util.streamex.StreamEx;
-import org.joor.Reflect;
 import org.mockito.MockedStatic;
 import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.Platform;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
@@ -28,7 +32,6 @@ import static io.github.sskorol.core.WebDriverFactory.WDP_DEFAULT;
 import static io.github.sskorol.utils.ServiceLoaderUtils.load;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.ThrowableAssert.catchThrowable;
-import static org.joor.Reflect.on;
 import static org.mockito.Mockito.*;
 import static org.openqa.selenium.remote.CapabilityType.BROWSER_NAME;
 import static org.openqa.selenium.remote.CapabilityType.PLATFORM_NAME;
@@ -168,16 +171,15 @@ public class CoreTests {
 
         WebDriver driver = mock(RemoteWebDriver.class, RETURNS_DEEP_STUBS);
         WebDriverProvider spyFactory = spy(defaultFactory);
-        Reflect spyReflectedDriver = spy(spyFactory.wrapDriver(firefox));
+        DriverConstructor spyConstructor = spy(spyFactory.getDriverConstructor(firefox));
 
-        doReturn(spyReflectedDriver).when(spyFactory).wrapDriver(firefox);
-        doReturn(on(driver)).when(spyReflectedDriver).create(new URL(firefox.url()), firefox.configuration(config));
+        doReturn(spyConstructor).when(spyFactory).getDriverConstructor(firefox);
+        doReturn(driver).when(spyConstructor).create(new URL(firefox.url()), firefox.configuration(config));
 
         assertThat(spyFactory.createDriver(firefox, config)).isInstanceOf(RemoteWebDriver.class);
     }
 
     @Test
-    @SuppressWarnings("unchecked")
     public void shouldCreateLocalDriverInstance() {
         Browser edge = StreamEx.of(browsers)
             .findFirst(f -> f.name() == Browser.Name.Edge)
@@ -194,13 +196,12 @@ public class CoreTests {
             WebDriverManager browserManager = mock(WebDriverManager.class, RETURNS_DEEP_STUBS);
             WebDriver driver = mock(EdgeDriver.class, RETURNS_DEEP_STUBS);
             WebDriverProvider spyFactory = spy(defaultFactory);
-            Reflect spyReflectedDriver = spy(spyFactory.wrapDriver(edge));
+            DriverConstructor spyConstructor = spy(spyFactory.getDriverConstructor(edge));
 
-            wdm.when(() -> WebDriverManager.getInstance((Class<? extends WebDriver>) spyReflectedDriver.type()))
-                .thenReturn(browserManager);
+            wdm.when(() -> WebDriverManager.getInstance(spyConstructor.getType())).thenReturn(browserManager);
             doNothing().when(browserManager).setup();
-            doReturn(spyReflectedDriver).when(spyFactory).wrapDriver(edge);
-            doReturn(on(driver)).when(spyReflectedDriver).create(edge.configuration(config));
+            doReturn(spyConstructor).when(spyFactory).getDriverConstructor(edge);
+            doReturn(driver).when(spyConstructor).create(edge.configuration(config));
 
             assertThat(spyFactory.createDriver(edge, config)).isInstanceOf(EdgeDriver.class);
         }
@@ -222,4 +223,57 @@ public class CoreTests {
             .isInstanceOf(SkipException.class)
             .hasStackTraceContaining("java.net.MalformedURLException");
     }
+
+    @Test
+    public void shouldQuitDriverIfScreenResolutionCantBeSet() {
+        var driver = mock(RemoteWebDriver.class);
+        doThrow(new WebDriverException("Window can't be maximized")).when(driver).manage();
+        var factory = new WebDriverFactory() {
+            @Override
+            public WebDriver createLocal(final DriverConstructor constructor, final Browser browser,
+                                         final XmlConfig config) {
+                return driver;
+            }
+        };
+
+        assertThat(catchThrowable(() -> factory.createDriver(firefox, new XmlConfig(new HashMap<>()))))
+            .isInstanceOf(SkipException.class)
+            .hasStackTraceContaining("Window can't be maximized");
+        verify(driver).quit();
+    }
+
+    @Test
+    public void shouldLinkDriverConstructorsOnce() {
+        DriverConstructor constructor = DriverConstructor.of(Browser.Name.Edge);
+
+        assertThat(constructor.getType()).isEqualTo(EdgeDriver.class);
+        assertThat(DriverConstructor.of(Browser.Name.Edge)).isSameAs(constructor);
+        assertThat(DriverConstructor.of(Browser.Name.Remote).getType()).isEqualTo(RemoteWebDriver.class);
+    }
+
+    @Test
+    public void shouldRejectUnsupportedCapabilitiesType() {
+        assertThat(catchThrowable(() -> DriverConstructor.of(Browser.Name.Edge).create(new DesiredCapabilities())))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(DesiredCapabilities.class.getName());
+    }
+
+    @Test
+    public void shouldRouteToFirstRegisteredBrowser() {
+        RoutingTable routingTable = RoutingTable.of(browsers, factories);
+
+        assertThat(routingTable.getBrowser("chrome")).hasValueSatisfying(b -> assertThat(b.isRemote()).isFalse());
+        assertThat(routingTable.getBrowser("firefox")).contains(firefox);
+        assertThat(routingTable.getBrowser("safari")).isEmpty();
+        assertThat(routingTable.getBrowser(null)).isEmpty();
+    }
+
+    @Test
+    public void shouldRouteToCustomProvider() {
+        assertThat(RoutingTable.of(browsers, factories).getProvider())
+            .hasValueSatisfying(p -> assertThat(p.label()).isNotEqualTo(WDP_DEFAULT));
+        assertThat(RoutingTable.of(browsers, List.of(defaultFactory)).getProvider()).contains(defaultFactory);
+        assertThat(RoutingTable.of(browsers, List.of(defaultFactory, defaultFactory)).getProvider()).isEmpty();
+        assertThat(RoutingTable.of(browsers, List.of()).getProvider()).isEmpty();
+    }
 }
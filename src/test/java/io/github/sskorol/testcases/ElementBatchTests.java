@@ -0,0 +1,106 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.core.WebDriverContainer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ElementBatchTests {
+
+    @Test
+    public void shouldResolveAllQueriesInSingleRoundTrip() {
+        var driver = mock(RemoteWebDriver.class);
+        var element = mock(WebElement.class);
+        doReturn(Arrays.asList("Title", true, 3L, List.of("a", "b"), null, element, List.of(element)))
+            .when(driver).executeScript(anyString(), any());
+        var batch = new WebDriverContainer(driver, null, null).batch();
+
+        var title = batch.text(By.cssSelector("h1"));
+        var displayed = batch.displayed(By.xpath("//div[@id='banner']"));
+        var count = batch.count(By.tagName("tr"));
+        var texts = batch.texts(By.linkText("Next"));
+        var href = batch.attribute(By.cssSelector("a.missing"), "href");
+        var first = batch.element(By.cssSelector("li"));
+        var all = batch.elements(By.cssSelector("li"));
+        var results = batch.execute();
+
+        assertThat(results.get(title)).isEqualTo("Title");
+        assertThat(results.get(displayed)).isTrue();
+        assertThat(results.get(count)).isEqualTo(3);
+        assertThat(results.get(texts)).containsExactly("a", "b");
+        assertThat(results.get(href)).isNull();
+        assertThat(results.get(first)).isSameAs(element);
+        assertThat(results.get(all)).containsExactly(element);
+        verify(driver, times(1)).executeScript(anyString(), argThat(queries -> ((List<?>) queries).size() == 7));
+    }
+
+    @Test
+    public void shouldPassLocatorsAndQueriesAsScriptArgument() {
+        var driver = mock(RemoteWebDriver.class);
+        doReturn(List.of("x", false)).when(driver).executeScript(anyString(), any());
+        var batch = new WebDriverContainer(driver, null, null).batch();
+
+        batch.attribute(By.xpath("//a"), "href");
+        batch.present(By.linkText("Home"));
+        batch.execute();
+
+        verify(driver).executeScript(anyString(), eq(List.of(
+            Arrays.asList("xpath", "//a", "attribute", "href"),
+            Arrays.asList("link text", "Home", "present", null)
+        )));
+    }
+
+    @Test
+    public void shouldNotCallDriverForEmptyBatch() {
+        var driver = mock(RemoteWebDriver.class);
+
+        assertThat(new WebDriverContainer(driver, null, null).batch().execute()).isNotNull();
+        verifyNoInteractions(driver);
+    }
+
+    @Test
+    public void shouldRejectQueriesOfAnotherBatch() {
+        var driver = mock(RemoteWebDriver.class);
+        doReturn(List.of(1L)).when(driver).executeScript(anyString(), any());
+        var container = new WebDriverContainer(driver, null, null);
+        var foreign = container.batch().count(By.cssSelector("p"));
+        var batch = container.batch();
+        batch.count(By.cssSelector("p"));
+        var results = batch.execute();
+
+        assertThatThrownBy(() -> results.get(foreign)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldRejectNonRemotableLocators() {
+        var batch = new WebDriverContainer(mock(RemoteWebDriver.class), null, null).batch();
+        var locator = new By() {
+            @Override
+            public List<WebElement> findElements(final SearchContext context) {
+                return List.of();
+            }
+        };
+
+        assertThatThrownBy(() -> batch.text(locator)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldRequireJavascriptExecutor() {
+        var container = new WebDriverContainer(mock(WebDriver.class), null, null);
+
+        assertThatThrownBy(container::batch).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.sskorol.testcases;
+
+import org.testng.annotations.Test;
+
+import static io.github.sskorol.listeners.BaseListener.getDriverMetaData;
+import static io.github.sskorol.listeners.BaseListener.isDriverMetaDataCreated;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FactoryTests6 {
+
+    @Test
+    public void test21() {
+        assertThat(isDriverMetaDataCreated()).isFalse();
+    }
+
+    @Test
+    public void test22() {
+        getDriverMetaData().getWebDriver().get("https://google.com/ncr");
+        assertThat(isDriverMetaDataCreated()).isTrue();
+    }
+}
@@ -1,18 +1,27 @@
 package io.github.sskorol.testcases;
 
+import io.github.sskorol.config.MockMetricsSink;
+import io.github.sskorol.config.MockWDFactory;
+import io.github.sskorol.core.MetricsSink;
 import io.github.sskorol.core.WebDriverProvider;
 import io.github.sskorol.listeners.BeforeMethodListener;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import one.util.streamex.IntStreamEx;
 import one.util.streamex.StreamEx;
+import org.mockito.Mockito;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
 import org.testng.TestNG;
 import org.testng.annotations.Test;
 
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static io.github.sskorol.core.MetricsSink.Phase.CREATE_DRIVER;
+import static io.github.sskorol.core.MetricsSink.Phase.QUIT;
 import static io.github.sskorol.core.WebDriverFactory.WDP_DEFAULT;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -82,10 +91,82 @@ public class ListenerTests {
         assertThat(nameListener._1.getSessionIds()).hasSize(1);
     }
 
+    @Test
+    public void shouldRecordLifecycleMetrics() {
+        MockMetricsSink.clearRecords();
+        run("src/test/resources/testng1.xml", this::getDefaultListener);
+        assertThat(MockMetricsSink.getRecords())
+            .contains(
+                new MockMetricsSink.Record(CREATE_DRIVER, new MetricsSink.Tags("firefox", "mock", true)),
+                new MockMetricsSink.Record(QUIT, new MetricsSink.Tags("firefox", "mock", true))
+            );
+    }
+
+    @Test
+    public void shouldReuseSessionsWhenPoolIsEnabled() {
+        System.setProperty("wd.pool.enabled", "true");
+        WD_CONFIG.reload();
+        try {
+            var driver = (RemoteWebDriver) new MockWDFactory().createDriver(null, null);
+            var nameListener = run("src/test/resources/testng3.xml", () -> getPooledListener(driver));
+            assertThat(nameListener._1.getSucceedMethodNames()).hasSize(8);
+            assertThat(nameListener._1.getSessionIds()).hasSize(8);
+            assertThat(StreamEx.of(nameListener._1.getSessionIds()).distinct().count()).isEqualTo(1);
+            assertThat(BeforeMethodListener.getWebDriverPool().size()).isZero();
+            verify(driver.manage(), times(8)).deleteAllCookies();
+            verify(driver, times(8)).executeScript(contains("localStorage.clear()"));
+            verify(driver, times(8)).get("about:blank");
+        } finally {
+            System.clearProperty("wd.pool.enabled");
+            WD_CONFIG.reload();
+        }
+    }
+
+    @Test
+    public void shouldCreateDriversOnFirstAccessInLazyMode() {
+        System.setProperty("wd.driver.lazy", "true");
+        WD_CONFIG.reload();
+        try {
+            var nameListener = run("src/test/resources/testng6.xml", this::getDefaultListener);
+            assertThat(nameListener._1.getSucceedMethodNames()).hasSize(2);
+            assertThat(nameListener._1.getSessionIds()).hasSize(1);
+        } finally {
+            System.clearProperty("wd.driver.lazy");
+            WD_CONFIG.reload();
+        }
+    }
+
+    @Test
+    public void shouldShareSessionsWithinDriverScope() {
+        System.setProperty("wd.driver.scope", "test");
+        WD_CONFIG.reload();
+        try {
+            var nameListener = run("src/test/resources/testng3.xml", this::getDefaultListener);
+            assertThat(nameListener._1.getSucceedMethodNames()).hasSize(8);
+            assertThat(StreamEx.of(nameListener._1.getSessionIds()).distinct().count()).isEqualTo(2);
+            assertThat(BeforeMethodListener.getScopedSessions().size()).isZero();
+        } finally {
+            System.clearProperty("wd.driver.scope");
+            WD_CONFIG.reload();
+        }
+    }
+
     private BeforeMethodListener getDefaultListener() {
         return spy(new BeforeMethodListener());
     }
 
+    private BeforeMethodListener getPooledListener(final WebDriver driver) {
+        var spyListener = spy(new BeforeMethodListener());
+        spyListener.loadServiceProviders();
+        var provider = StreamEx.of(spyListener.getWebDriverProviders())
+            .findFirst(p -> "mock".equals(p.label()))
+            .map(Mockito::spy)
+            .orElseThrow(() -> new IllegalStateException("Unable to find mock provider"));
+        doReturn(driver).when(provider).createDriver(any(), any());
+        doReturn(singletonList(provider)).when(spyListener).getWebDriverProviders();
+        return spyListener;
+    }
+
     private BeforeMethodListener getClonedListener() {
         return spy(new ClonedBeforeMethodListener());
     }
@@ -0,0 +1,114 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.core.DriverEvents;
+import io.github.sskorol.core.DriverMetrics;
+import io.github.sskorol.core.MetricsSink;
+import io.github.sskorol.core.SummaryMetricsSink;
+import io.github.sskorol.utils.LatencyHistogram;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import one.util.streamex.LongStreamEx;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static io.github.sskorol.config.WebDriverConfig.WD_CONFIG;
+import static io.github.sskorol.core.MetricsSink.Phase.CREATE_DRIVER;
+import static io.github.sskorol.core.MetricsSink.Phase.QUIT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+public class MetricsTests {
+
+    private static final MetricsSink.Tags TAGS = new MetricsSink.Tags("chrome", "wdp_default", false);
+
+    @Test
+    public void shouldCalculatePercentilesWithinBucketPrecision() {
+        var histogram = new LatencyHistogram();
+        LongStreamEx.rangeClosed(1, 1000).forEach(millis -> histogram.record(MILLISECONDS.toNanos(millis)));
+
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getMaxMicros()).isEqualTo(1_000_000);
+        assertThat(histogram.getPercentileMicros(50)).isCloseTo(500_000, within(62_500L));
+        assertThat(histogram.getPercentileMicros(99)).isCloseTo(990_000, within(123_750L));
+        assertThat(histogram.getPercentileMicros(100)).isEqualTo(1_000_000);
+    }
+
+    @Test
+    public void shouldMergeHistograms() {
+        var first = new LatencyHistogram();
+        var second = new LatencyHistogram();
+        first.record(MILLISECONDS.toNanos(10));
+        second.record(MILLISECONDS.toNanos(30));
+        second.record(MILLISECONDS.toNanos(20));
+
+        first.merge(second);
+
+        assertThat(first.getCount()).isEqualTo(3);
+        assertThat(first.getTotalMicros()).isEqualTo(60_000);
+        assertThat(first.getMaxMicros()).isEqualTo(30_000);
+        assertThat(first.getPercentileMicros(100)).isEqualTo(30_000);
+    }
+
+    @Test
+    public void shouldReturnZeroPercentileForEmptyHistogram() {
+        assertThat(new LatencyHistogram().getPercentileMicros(95)).isZero();
+    }
+
+    @Test
+    public void shouldAggregateTimingsPerPhaseAndTags() {
+        var sink = new SummaryMetricsSink();
+        sink.record(CREATE_DRIVER, TAGS, MILLISECONDS.toNanos(100));
+        sink.record(CREATE_DRIVER, TAGS, MILLISECONDS.toNanos(200));
+        sink.record(QUIT, TAGS, MILLISECONDS.toNanos(10));
+
+        assertThat(sink.getHistograms()).hasSize(2);
+        assertThat(sink.getHistograms().get(new SummaryMetricsSink.Key(CREATE_DRIVER, TAGS)).getCount()).isEqualTo(2);
+
+        sink.onFinish();
+        assertThat(sink.getHistograms()).isEmpty();
+    }
+
+    @Test
+    public void shouldIsolateFailingSinks() {
+        var failingSink = mock(MetricsSink.class);
+        var sink = new SummaryMetricsSink();
+        doThrow(new IllegalStateException("broken")).when(failingSink).record(any(), any(), anyLong());
+        var metrics = new DriverMetrics();
+        metrics.setSinks(List.of(failingSink, sink));
+
+        metrics.record(QUIT, TAGS, 1);
+        assertThat(sink.getHistograms()).hasSize(1);
+    }
+
+    @Test
+    public void shouldCommitJfrEventsWhenEnabled() throws IOException {
+        System.setProperty("wd.jfr.events", "true");
+        WD_CONFIG.reload();
+        var file = Files.createTempFile("webdriver-supplier", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("io.github.sskorol.DriverQuit");
+            recording.start();
+            DriverEvents.begin(new DriverEvents.Quit()).complete(TAGS, "session1", "test1");
+            recording.stop();
+            recording.dump(file);
+
+            assertThat(RecordingFile.readAllEvents(file))
+                .filteredOn(event -> event.getEventType().getName().equals("io.github.sskorol.DriverQuit"))
+                .anySatisfy(event -> {
+                    assertThat(event.getString("browser")).isEqualTo("chrome");
+                    assertThat(event.getString("provider")).isEqualTo("wdp_default");
+                    assertThat(event.getString("sessionId")).isEqualTo("session1");
+                    assertThat(event.getString("testName")).isEqualTo("test1");
+                });
+        } finally {
+            Files.deleteIfExists(file);
+            System.clearProperty("wd.jfr.events");
+            WD_CONFIG.reload();
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.config.XmlConfig;
+import io.github.sskorol.core.Scope;
+import io.github.sskorol.core.ScopedSessions;
+import io.github.sskorol.core.SessionReset;
+import io.github.sskorol.core.WebDriverContainer;
+import io.github.sskorol.core.WebDriverPool;
+import org.aeonbits.owner.ConfigFactory;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.sskorol.config.XmlConfig.TEST_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+import static org.openqa.selenium.remote.CapabilityType.BROWSER_NAME;
+
+public class PoolTests {
+
+    @Test
+    public void shouldNotRetainSessionsWhenPoolIsDisabled() {
+        var pool = new WebDriverPool(config(Map.of()), c -> { });
+        var container = container("test1");
+
+        assertThat(pool.release(container)).isFalse();
+        assertThat(pool.acquire(container.getConfig())).isEmpty();
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    public void shouldRejectUnknownResetStepOnValidation() {
+        var config = config(Map.of("wd.pool.enabled", "true", "wd.pool.reset", "cookies,cache"));
+        var pool = new WebDriverPool(config, c -> { });
+
+        assertThatThrownBy(pool::validate)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid wd.pool.reset: Unknown session reset step 'cache', "
+                        + "expected one of [cookies, storage, windows]");
+        assertThat(pool.release(container("test1"))).isFalse();
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    public void shouldReuseSessionWithTheSameKey() {
+        var pool = new WebDriverPool(config(Map.of("wd.pool.enabled", "true")), c -> { });
+        var container = container("test1");
+
+        assertThat(pool.release(container)).isTrue();
+        assertThat(pool.acquire(xmlConfig("firefox", "test2"))).isEmpty();
+
+        var reused = pool.acquire(xmlConfig("chrome", "test2")).orElseThrow();
+        assertThat(reused.isReused()).isTrue();
+        assertThat(reused.getWebDriver()).isSameAs(container.getWebDriver());
+        assertThat(reused.getConfig().getTestName()).isEqualTo("test2");
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    public void shouldReuseSessionRegardlessOfDriverScope() {
+        var pool = new WebDriverPool(config(Map.of("wd.pool.enabled", "true")), c -> { });
+        var container = container("test1");
+        container.getConfig().extendParameters(Map.of(XmlConfig.DRIVER_SCOPE, "class"));
+
+        assertThat(pool.release(container)).isTrue();
+        assertThat(pool.acquire(xmlConfig("chrome", "test2"))).isNotEmpty();
+    }
+
+    @Test
+    public void shouldResetSessionBeforeRetaining() {
+        var pool = new WebDriverPool(config(Map.of("wd.pool.enabled", "true")), c -> { });
+        var container = container("test1");
+
+        pool.release(container);
+
+        var driver = container.getWebDriver();
+        verify(driver.manage()).deleteAllCookies();
+        verify(driver).get("about:blank");
+    }
+
+    @Test
+    public void shouldNotRetainSessionOnFailedReset() {
+        var pool = new WebDriverPool(config(Map.of("wd.pool.enabled", "true")), c -> { });
+        var container = container("test1");
+        doThrow(new IllegalStateException("unreachable")).when(container.getWebDriver()).get("about:blank");
+
+        assertThat(pool.release(container)).isFalse();
+    }
+
+    @Test
+    public void shouldRespectUsagesLimit() {
+        var pool = new WebDriverPool(config(Map.of("wd.pool.enabled", "true", "wd.pool.max.uses", "2")), c -> { });
+
+        assertThat(pool.release(container("test1"))).isTrue();
+        var reused = pool.acquire(xmlConfig("chrome", "test2")).orElseThrow();
+        assertThat(reused.getUsages()).isEqualTo(2);
+        assertThat(pool.release(reused)).isFalse();
+    }
+
+    @Test
+    public void shouldRespectPoolSizeLimit() {
+        var pool = new WebDriverPool(config(Map.of("wd.pool.enabled", "true", "wd.pool.max.size", "1")), c -> { });
+
+        assertThat(pool.release(container("test1"))).isTrue();
+        assertThat(pool.release(container("test2"))).isFalse();
+        assertThat(pool.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDisposeExpiredSessions() {
+        var disposed = new ArrayList<WebDriverContainer>();
+        var pool = new WebDriverPool(
+            config(Map.of("wd.pool.enabled", "true", "wd.pool.max.idle", "-1")), disposed::add
+        );
+        var container = container("test1");
+
+        pool.release(container);
+
+        assertThat(pool.acquire(xmlConfig("chrome", "test2"))).isEmpty();
+        assertThat(disposed).containsExactly(container);
+    }
+
+    @Test
+    public void shouldDisposeExpiredSessionsOfOtherKeys() throws InterruptedException {
+        var disposed = new ArrayList<WebDriverContainer>();
+        var pool = new WebDriverPool(
+            config(Map.of("wd.pool.enabled", "true", "wd.pool.max.idle", "1")), disposed::add
+        );
+        var chrome = container("test1");
+        var firefox = new WebDriverContainer(mock(RemoteWebDriver.class, RETURNS_DEEP_STUBS), null,
+                                             xmlConfig("firefox", "test2"));
+
+        pool.release(chrome);
+        Thread.sleep(1100);
+        pool.release(firefox);
+
+        assertThat(disposed).containsExactly(chrome);
+        assertThat(pool.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDisposeIdleSessionsOnClear() {
+        var disposed = new ArrayList<WebDriverContainer>();
+        var pool = new WebDriverPool(config(Map.of("wd.pool.enabled", "true")), disposed::add);
+        var container = container("test1");
+
+        pool.release(container);
+        pool.clear();
+
+        assertThat(disposed).containsExactly(container);
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    public void shouldHandOverWarmedUpSession() {
+        var pool = new WebDriverPool(config(Map.of()), c -> { });
+        var container = container("warm-up");
+
+        pool.warmUp(container.getConfig(), () -> Optional.of(container), Runnable::run);
+
+        var warmedUp = pool.acquire(xmlConfig("chrome", "test1")).orElseThrow();
+        assertThat(warmedUp.isReused()).isFalse();
+        assertThat(warmedUp.getWebDriver()).isSameAs(container.getWebDriver());
+        assertThat(warmedUp.getConfig().getTestName()).isEqualTo("test1");
+        assertThat(pool.acquire(xmlConfig("chrome", "test2"))).isEmpty();
+    }
+
+    @Test
+    public void shouldSkipFailedWarmUps() {
+        var pool = new WebDriverPool(config(Map.of()), c -> { });
+        var container = container("warm-up");
+
+        pool.warmUp(container.getConfig(), () -> {
+            throw new IllegalStateException("Grid is unavailable");
+        }, Runnable::run);
+        pool.warmUp(container.getConfig(), () -> Optional.of(container), Runnable::run);
+
+        assertThat(pool.acquire(xmlConfig("chrome", "test1"))).isPresent();
+    }
+
+    @Test
+    public void shouldNotWaitForPendingWarmUpLongerThanTimeout() {
+        var pool = new WebDriverPool(config(Map.of("wd.pool.warmup.timeout", "0")), c -> { });
+        var container = container("warm-up");
+        var tasks = new ArrayList<Runnable>();
+
+        pool.warmUp(container.getConfig(), () -> Optional.of(container), tasks::add);
+        assertThat(pool.acquire(xmlConfig("chrome", "test1"))).isEmpty();
+
+        tasks.forEach(Runnable::run);
+        assertThat(pool.acquire(xmlConfig("chrome", "test2")))
+            .hasValueSatisfying(warmedUp -> assertThat(warmedUp.getWebDriver()).isSameAs(container.getWebDriver()));
+    }
+
+    @Test
+    public void shouldDisposeNotConsumedWarmedUpSessionsOnClear() {
+        var disposed = new ArrayList<WebDriverContainer>();
+        var pool = new WebDriverPool(config(Map.of()), disposed::add);
+        var container = container("warm-up");
+
+        pool.warmUp(container.getConfig(), () -> Optional.of(container), Runnable::run);
+        pool.clear();
+
+        assertThat(disposed).containsExactly(container);
+    }
+
+    @Test
+    public void shouldParseResetSteps() {
+        assertThat(SessionReset.parse(List.of(" windows", "Cookies", "")))
+            .containsExactly(SessionReset.COOKIES, SessionReset.WINDOWS);
+    }
+
+    @Test
+    public void shouldKeepScopedSessionsTillScopeIsClosed() {
+        var disposed = new ArrayList<WebDriverContainer>();
+        var sessions = new ScopedSessions(config(Map.of()), disposed::add);
+        var container = container("test1");
+
+        sessions.release("suite/test/Class", container);
+        assertThat(sessions.acquire("suite/test/Other", xmlConfig("chrome", "test2"))).isEmpty();
+        assertThat(sessions.acquire("suite/test/Class", xmlConfig("chrome", "test2")))
+            .hasValueSatisfying(reused -> assertThat(reused.getWebDriver()).isSameAs(container.getWebDriver()));
+
+        sessions.release("suite/test/Class", container);
+        sessions.close("suite/test/Class");
+        assertThat(disposed).containsExactly(container);
+        assertThat(sessions.size()).isZero();
+    }
+
+    @Test
+    public void shouldDisposeScopedSessionOnFailedReset() {
+        var disposed = new ArrayList<WebDriverContainer>();
+        var sessions = new ScopedSessions(config(Map.of("wd.scope.reset", "cookies")), disposed::add);
+        var container = container("test1");
+        doThrow(new IllegalStateException("unreachable")).when(container.getWebDriver().manage()).deleteAllCookies();
+
+        sessions.release("suite", container);
+        assertThat(disposed).containsExactly(container);
+        assertThat(sessions.size()).isZero();
+    }
+
+    @Test
+    public void shouldRejectUnknownScopeResetStepOnValidation() {
+        var disposed = new ArrayList<WebDriverContainer>();
+        var sessions = new ScopedSessions(config(Map.of("wd.scope.reset", "cookies,tabs")), disposed::add);
+        var container = container("test1");
+
+        assertThatThrownBy(sessions::validate)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("Invalid wd.scope.reset: Unknown session reset step 'tabs'");
+        sessions.release("suite", container);
+        assertThat(disposed).containsExactly(container);
+    }
+
+    @Test
+    public void shouldNameUnknownDriverScope() {
+        assertThat(Scope.of(" Class ")).isEqualTo(Scope.CLASS);
+        assertThatThrownBy(() -> Scope.of("module"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unknown driver scope 'module', expected one of [method, class, test, suite]");
+    }
+
+    private WebDriverConfig config(final Map<String, String> properties) {
+        return ConfigFactory.create(WebDriverConfig.class, properties);
+    }
+
+    private WebDriverContainer container(final String testName) {
+        final WebDriver driver = mock(RemoteWebDriver.class, RETURNS_DEEP_STUBS);
+        return new WebDriverContainer(driver, null, xmlConfig("chrome", testName));
+    }
+
+    private XmlConfig xmlConfig(final String browser, final String testName) {
+        final Map<String, String> parameters = new HashMap<>();
+        parameters.put(BROWSER_NAME, browser);
+        parameters.put(TEST_NAME, testName);
+        return new XmlConfig(parameters);
+    }
+}
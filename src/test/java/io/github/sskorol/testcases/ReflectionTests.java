@@ -1,5 +1,7 @@
 package io.github.sskorol.testcases;
 
+import io.github.sskorol.core.DriverEvents;
+import io.github.sskorol.utils.ConcurrencyUtils;
 import io.github.sskorol.utils.ServiceLoaderUtils;
 import io.github.sskorol.utils.StringUtils;
 import io.github.sskorol.utils.TestNGUtils;
@@ -28,6 +30,18 @@ public class ReflectionTests {
             .hasStackTraceContaining("java.lang.UnsupportedOperationException: Illegal access to private constructor");
     }
 
+    @Test
+    public void shouldThrowAnExceptionOnConcurrencyUtilsConstructorAccess() {
+        assertThatThrownBy(() -> onClass(ConcurrencyUtils.class).create())
+            .hasStackTraceContaining("java.lang.UnsupportedOperationException: Illegal access to private constructor");
+    }
+
+    @Test
+    public void shouldThrowAnExceptionOnDriverEventsConstructorAccess() {
+        assertThatThrownBy(() -> onClass(DriverEvents.class).create())
+            .hasStackTraceContaining("java.lang.UnsupportedOperationException: Illegal access to private constructor");
+    }
+
     @Test
     public void shouldReturnEmptyCollectionInCaseOfException() {
         assertThat(ServiceLoaderUtils.load(null, null)).isEmpty();
@@ -0,0 +1,139 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.core.DriverResolutionCache;
+import io.github.sskorol.core.DriverResolutionCache.Resolution;
+import one.util.streamex.IntStreamEx;
+import org.aeonbits.owner.ConfigFactory;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ResolutionTests {
+
+    @Test
+    public void shouldResolveDriverOnlyOncePerKey() {
+        var counter = new AtomicInteger();
+        var cache = new DriverResolutionCache(config(Map.of()), counting(counter, 200));
+        var executor = Executors.newFixedThreadPool(8);
+
+        try {
+            var resolutions = IntStreamEx.range(8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> cache.resolve(ChromeDriver.class, "100"), executor))
+                .toList();
+            resolutions.forEach(CompletableFuture::join);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        cache.resolve(ChromeDriver.class, "100");
+        assertThat(counter).hasValue(1);
+
+        cache.resolve(ChromeDriver.class, "101");
+        cache.resolve(EdgeDriver.class, "100");
+        assertThat(counter).hasValue(3);
+    }
+
+    @Test
+    public void shouldRetryFailedResolution() {
+        var counter = new AtomicInteger();
+        var cache = new DriverResolutionCache(config(Map.of()), (driverClass, version) -> {
+            if (counter.incrementAndGet() == 1) {
+                throw new IllegalStateException("Network is unreachable");
+            }
+            return new Resolution(null, null);
+        });
+
+        assertThatThrownBy(() -> cache.resolve(ChromeDriver.class, ""))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Network is unreachable");
+        cache.resolve(ChromeDriver.class, "");
+        assertThat(counter).hasValue(2);
+    }
+
+    @Test
+    public void shouldCreateDriversOfDifferentVersionsWithTheirOwnBinaries() {
+        var property = "wd.test.versioned.driver";
+        BiFunction<Class<? extends WebDriver>, String, Resolution> resolver =
+            (driverClass, version) -> new Resolution(property, "/drivers/" + version);
+        var cache = new DriverResolutionCache(config(Map.of()), resolver);
+        var executor = Executors.newFixedThreadPool(8);
+
+        try {
+            var sessions = IntStreamEx.range(32)
+                .mapToObj(i -> String.valueOf(100 + i % 2))
+                .map(version -> CompletableFuture.supplyAsync(() -> cache.create(ChromeDriver.class, version, () -> {
+                    sleep(5);
+                    return version + " -> " + System.getProperty(property);
+                }), executor))
+                .toList();
+            assertThat(sessions)
+                .extracting(CompletableFuture::join)
+                .allMatch(session -> session.endsWith("/drivers/" + session.substring(0, session.indexOf(' '))));
+        } finally {
+            executor.shutdownNow();
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void shouldUsePersistedIndexInOfflineMode() throws IOException {
+        var dir = Files.createTempDirectory("wd-resolutions");
+        var binary = Files.createFile(dir.resolve("chromedriver"));
+        var index = dir.resolve("index.properties").toString();
+        var property = "wd.test.chrome.driver";
+
+        new DriverResolutionCache(config(Map.of("wd.driver.index", index)),
+                                  (driverClass, version) -> new Resolution(property, binary.toString()))
+            .resolve(ChromeDriver.class, "100");
+        System.clearProperty(property);
+
+        var counter = new AtomicInteger();
+        var offlineCache = new DriverResolutionCache(
+            config(Map.of("wd.driver.index", index, "wd.driver.offline", "true")), counting(counter, 0)
+        );
+
+        assertThat(offlineCache.resolve(ChromeDriver.class, "100").path()).isEqualTo(binary.toString());
+        assertThat(System.getProperty(property)).isEqualTo(binary.toString());
+        assertThat(counter).hasValue(0);
+
+        offlineCache.resolve(ChromeDriver.class, "101");
+        assertThat(counter).hasValue(1);
+        System.clearProperty(property);
+    }
+
+    private WebDriverConfig config(final Map<String, String> properties) {
+        return ConfigFactory.create(WebDriverConfig.class, properties);
+    }
+
+    private BiFunction<Class<? extends WebDriver>, String, Resolution> counting(
+        final AtomicInteger counter,
+        final long delay
+    ) {
+        return (driverClass, version) -> {
+            counter.incrementAndGet();
+            sleep(delay);
+            return new Resolution(null, null);
+        };
+    }
+
+    private static void sleep(final long delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
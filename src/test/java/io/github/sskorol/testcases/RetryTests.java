@@ -0,0 +1,151 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.core.CircuitBreaker;
+import io.github.sskorol.core.SessionRetry;
+import org.aeonbits.owner.ConfigFactory;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.annotations.Test;
+
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+import static org.mockito.Mockito.mock;
+
+public class RetryTests {
+
+    private static final String GRID = "wdp_default@http://localhost:4444/wd/hub";
+
+    @Test
+    public void shouldNotRetryByDefault() {
+        var retry = new SessionRetry(config(Map.of()));
+        var calls = new AtomicInteger();
+
+        assertThat(catchThrowable(() -> retry.create(GRID, failing(calls, Integer.MAX_VALUE))))
+            .isInstanceOf(SessionNotCreatedException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void shouldRetryTransientFailures() {
+        var retry = new SessionRetry(config(Map.of("wd.retry.attempts", "3", "wd.retry.backoff", "10")));
+        var calls = new AtomicInteger();
+
+        assertThat(retry.create(GRID, failing(calls, 2))).isNotNull();
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    public void shouldRetryWhenGridIsAtCapacity() {
+        var retry = new SessionRetry(config(Map.of("wd.retry.attempts", "3", "wd.retry.backoff", "10")));
+        var calls = new AtomicInteger();
+
+        assertThat(retry.create(GRID, failing(calls, 1, () -> new SessionNotCreatedException(
+            "Could not start a new session. New session request timed out"
+        )))).isNotNull();
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    public void shouldNotRetryDeterministicFailures() {
+        var retry = new SessionRetry(config(Map.of(
+            "wd.retry.attempts", "3",
+            "wd.retry.backoff", "10",
+            "wd.breaker.threshold", "1"
+        )));
+        var calls = new AtomicInteger();
+
+        assertThat(catchThrowable(() -> retry.create(GRID, failing(calls, Integer.MAX_VALUE, () ->
+            new SessionNotCreatedException("This version of ChromeDriver only supports Chrome version 100")
+        )))).isInstanceOf(SessionNotCreatedException.class);
+        assertThat(calls).hasValue(1);
+        assertThat(retry.getBreaker(GRID).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void shouldNotResetFailuresOnDeterministicFailure() {
+        var retry = new SessionRetry(config(Map.of("wd.breaker.threshold", "2")));
+        var calls = new AtomicInteger();
+
+        catchThrowable(() -> retry.create(GRID, failing(calls, 1)));
+        catchThrowable(() -> retry.create(GRID, failing(calls, 2, () -> new IllegalStateException("No free slot"))));
+        assertThat(retry.getBreaker(GRID).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        catchThrowable(() -> retry.create(GRID, failing(calls, 3)));
+        assertThat(retry.getBreaker(GRID).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void shouldFailFastWhenCircuitIsOpen() {
+        var retry = new SessionRetry(config(Map.of(
+            "wd.retry.attempts", "5",
+            "wd.retry.backoff", "10",
+            "wd.breaker.threshold", "2"
+        )));
+        var calls = new AtomicInteger();
+
+        assertThat(catchThrowable(() -> retry.create(GRID, failing(calls, Integer.MAX_VALUE))))
+            .isInstanceOf(SessionNotCreatedException.class);
+        assertThat(calls).hasValue(2);
+        assertThat(retry.getBreaker(GRID).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThat(catchThrowable(() -> retry.create(GRID, failing(calls, Integer.MAX_VALUE))))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining(GRID);
+        assertThat(calls).hasValue(2);
+        assertThat(retry.create("wdp_default@chrome", failing(calls, 0))).isNotNull();
+    }
+
+    @Test
+    public void shouldProbeEndpointInHalfOpenState() {
+        var clock = new AtomicLong();
+        var breaker = new CircuitBreaker(1, 100, clock::get);
+
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        clock.set(100);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        clock.set(200);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.release();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    private Supplier<WebDriver> failing(final AtomicInteger calls, final int failures) {
+        return failing(calls, failures, () -> new SessionNotCreatedException(
+            "Could not start a new session", new ConnectException("Connection refused")
+        ));
+    }
+
+    private Supplier<WebDriver> failing(final AtomicInteger calls, final int failures,
+                                        final Supplier<RuntimeException> error) {
+        return () -> {
+            if (calls.incrementAndGet() <= failures) {
+                throw error.get();
+            }
+            return mock(RemoteWebDriver.class);
+        };
+    }
+
+    private WebDriverConfig config(final Map<String, String> properties) {
+        return ConfigFactory.create(WebDriverConfig.class, properties);
+    }
+}
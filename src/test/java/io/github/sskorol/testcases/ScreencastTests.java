@@ -0,0 +1,150 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.cdt.protocol.events.page.ScreencastFrame;
+import io.github.sskorol.cdt.protocol.support.types.EventHandler;
+import io.github.sskorol.cdt.protocol.support.types.EventListener;
+import io.github.sskorol.cdt.services.ChromeDevToolsService;
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.core.ScreencastRecorder;
+import io.github.sskorol.utils.FrameBuffer;
+import org.aeonbits.owner.ConfigFactory;
+import org.mockito.ArgumentCaptor;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class ScreencastTests {
+
+    private static final byte[] FRAME = {1, 2, 3};
+
+    @Test
+    public void shouldEvictFramesOutsideOfWindow() {
+        var buffer = new FrameBuffer(100, 1024);
+
+        buffer.add(0, FRAME);
+        buffer.add(50, FRAME);
+        buffer.add(120, FRAME);
+
+        assertThat(buffer.drain(120)).extracting(FrameBuffer.Frame::timestamp).containsExactly(50L, 120L);
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.bytes()).isZero();
+    }
+
+    @Test
+    public void shouldDrainOnlyFramesWithinWindowBeforeNow() {
+        var buffer = new FrameBuffer(100, 1024);
+
+        buffer.add(0, FRAME);
+        buffer.add(50, FRAME);
+        buffer.add(120, FRAME);
+
+        assertThat(buffer.drain(200)).extracting(FrameBuffer.Frame::timestamp).containsExactly(120L);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    public void shouldEvictStaleFramesWithoutNewOnes() {
+        var buffer = new FrameBuffer(100, 1024);
+
+        buffer.add(0, FRAME);
+        buffer.add(50, FRAME);
+        buffer.evict(120);
+
+        assertThat(buffer.size()).isEqualTo(1);
+        assertThat(buffer.bytes()).isEqualTo(FRAME.length);
+        buffer.evict(500);
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.bytes()).isZero();
+    }
+
+    @Test
+    public void shouldEvictFramesExceedingMemoryCap() {
+        var buffer = new FrameBuffer(Long.MAX_VALUE, 7);
+
+        buffer.add(0, FRAME);
+        buffer.add(1, FRAME);
+        buffer.add(2, FRAME);
+
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(buffer.bytes()).isEqualTo(6);
+        assertThat(buffer.add(3, new byte[8])).isFalse();
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldSaveScreencastOfFailedTest() throws IOException {
+        var directory = Files.createTempDirectory("screencasts");
+        var devTools = mock(ChromeDevToolsService.class, RETURNS_DEEP_STUBS);
+        var recorder = ScreencastRecorder.start(devTools, config(directory));
+
+        sendFrames(devTools, 3);
+        assertThat(recorder.getBufferedFrames()).isEqualTo(3);
+        var saved = recorder.stop(testResult(ITestResult.FAILURE));
+
+        assertThat(saved).isPresent();
+        assertThat(saved.get().resolve("frame-00002.jpg")).hasBinaryContent(FRAME);
+        assertThat(Files.readString(saved.get().resolve("frames.ffconcat"))).contains("file frame-00000.jpg");
+        assertThat(recorder.getBufferedFrames()).isZero();
+        verify(devTools.getPage()).stopScreencast();
+    }
+
+    @Test
+    public void shouldDiscardScreencastOfPassedTest() throws IOException {
+        var directory = Files.createTempDirectory("screencasts");
+        var devTools = mock(ChromeDevToolsService.class, RETURNS_DEEP_STUBS);
+        var recorder = ScreencastRecorder.start(devTools, config(directory));
+
+        sendFrames(devTools, 2);
+
+        assertThat(recorder.stop(testResult(ITestResult.SUCCESS))).isEmpty();
+        assertThat(recorder.getBufferedFrames()).isZero();
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    public void shouldUnsubscribeIfScreencastCantBeStarted() throws IOException {
+        var devTools = mock(ChromeDevToolsService.class, RETURNS_DEEP_STUBS);
+        var listener = mock(EventListener.class);
+        doReturn(listener).when(devTools.getPage()).onScreencastFrame(any());
+        doThrow(new IllegalStateException("Screencast is not supported"))
+            .when(devTools.getPage()).startScreencast(any(), any(), any(), any(), any());
+
+        assertThatThrownBy(() -> ScreencastRecorder.start(devTools, config(Files.createTempDirectory("screencasts"))))
+            .hasMessage("Screencast is not supported");
+        verify(listener).unsubscribe();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void sendFrames(final ChromeDevToolsService devTools, final int count) {
+        ArgumentCaptor<EventHandler<ScreencastFrame>> handler = ArgumentCaptor.forClass(EventHandler.class);
+        verify(devTools.getPage()).onScreencastFrame(handler.capture());
+        for (int i = 0; i < count; i++) {
+            var frame = mock(ScreencastFrame.class);
+            doReturn(Base64.getEncoder().encodeToString(FRAME)).when(frame).getData();
+            doReturn(i).when(frame).getSessionId();
+            handler.getValue().onEvent(frame);
+        }
+    }
+
+    private ITestResult testResult(final int status) {
+        var testResult = mock(ITestResult.class);
+        doReturn(status).when(testResult).getStatus();
+        doReturn("shouldRecord").when(testResult).getName();
+        return testResult;
+    }
+
+    private WebDriverConfig config(final Path directory) {
+        return ConfigFactory.create(WebDriverConfig.class, Map.of("wd.screencast.dir", directory.toString()));
+    }
+}
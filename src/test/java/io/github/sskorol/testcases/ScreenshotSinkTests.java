@@ -0,0 +1,114 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.core.FileScreenshotSink;
+import io.github.sskorol.core.MetricsSink;
+import io.github.sskorol.core.Screenshot;
+import io.github.sskorol.core.ScreenshotDispatcher;
+import org.aeonbits.owner.ConfigFactory;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.github.sskorol.core.FileScreenshotSink.SCREENSHOT_ATTRIBUTE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ScreenshotSinkTests {
+
+    private static final MetricsSink.Tags TAGS = new MetricsSink.Tags(null, null, false);
+    private static final String PNG =
+        "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNkYAAAAAYAAjCB0C8AAAAASUVORK5CYII=";
+
+    @Test
+    public void shouldStoreIdenticalScreenshotsOnce() throws IOException {
+        var directory = Files.createTempDirectory("screenshots");
+        var sink = new FileScreenshotSink(config(directory));
+        var first = testResult("shouldOpenPage", 1000L);
+        var second = testResult("shouldOpenPage", 2000L);
+
+        sink.handle(Screenshot.fromBase64(PNG), first);
+        sink.handle(Screenshot.of(Base64.getDecoder().decode(PNG)), second);
+        sink.flush();
+
+        assertThat(sink.getWritten()).isEqualTo(1);
+        assertThat(sink.getDeduplicated()).isEqualTo(1);
+        try (var objects = Files.walk(directory.resolve("objects"))) {
+            assertThat(objects.filter(Files::isRegularFile)).hasSize(1);
+        }
+        var methodDir = directory.resolve("suite").resolve("test").resolve("ScreenshotSinkTests.shouldOpenPage");
+        assertThat(methodDir.resolve("1000-0.png")).hasBinaryContent(Base64.getDecoder().decode(PNG));
+        assertThat(methodDir.resolve("2000-0.png")).exists();
+        verify(first).setAttribute(SCREENSHOT_ATTRIBUTE, methodDir.resolve("1000-0.png"));
+        verify(second).setAttribute(SCREENSHOT_ATTRIBUTE, methodDir.resolve("2000-0.png"));
+    }
+
+    @Test
+    public void shouldStoreDifferentScreenshotsSeparately() throws IOException {
+        var directory = Files.createTempDirectory("screenshots");
+        var sink = new FileScreenshotSink(config(directory));
+
+        sink.handle(Screenshot.of(new byte[]{1, 2, 3}), testResult("first", 1L));
+        sink.handle(Screenshot.of(new byte[]{(byte) 0xFF, (byte) 0xD8, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}),
+                    testResult("second", 1L));
+        sink.flush();
+
+        assertThat(sink.getWritten()).isEqualTo(2);
+        assertThat(sink.getDeduplicated()).isZero();
+        var testDir = directory.resolve("suite").resolve("test");
+        assertThat(testDir.resolve("ScreenshotSinkTests.first").resolve("1-0.bin"))
+            .hasBinaryContent(new byte[]{1, 2, 3});
+        assertThat(testDir.resolve("ScreenshotSinkTests.second").resolve("1-0.jpg")).exists();
+    }
+
+    @Test
+    public void shouldAttachPathOnTestThreadAndKeepInvocationsApart() throws IOException {
+        var directory = Files.createTempDirectory("screenshots");
+        var sink = new FileScreenshotSink(config(directory));
+        var dispatcher = new ScreenshotDispatcher(ConfigFactory.create(WebDriverConfig.class, Map.of(
+            "wd.screenshot.async", "true"
+        )));
+        var first = testResult("shouldOpenPage", 1000L);
+        var second = testResult("shouldOpenPage", 1000L);
+        var methodDir = directory.resolve("suite").resolve("test").resolve("ScreenshotSinkTests.shouldOpenPage");
+
+        dispatcher.dispatch(Screenshot.fromBase64(PNG), first, List.of(sink), TAGS);
+        verify(first).setAttribute(SCREENSHOT_ATTRIBUTE, methodDir.resolve("1000-0.png"));
+        dispatcher.dispatch(Screenshot.of(new byte[]{1, 2, 3}), second, List.of(sink), TAGS);
+        verify(second).setAttribute(SCREENSHOT_ATTRIBUTE, methodDir.resolve("1000-1.bin"));
+        dispatcher.flush();
+        sink.flush();
+
+        assertThat(methodDir.resolve("1000-0.png")).hasBinaryContent(Base64.getDecoder().decode(PNG));
+        assertThat(methodDir.resolve("1000-1.bin")).hasBinaryContent(new byte[]{1, 2, 3});
+    }
+
+    private ITestResult testResult(final String methodName, final long startMillis) {
+        var testResult = mock(ITestResult.class, RETURNS_DEEP_STUBS);
+        doReturn("suite").when(testResult.getTestContext().getSuite()).getName();
+        doReturn("test").when(testResult.getTestContext()).getName();
+        doReturn(getClass()).when(testResult.getMethod()).getRealClass();
+        doReturn(methodName).when(testResult.getMethod()).getMethodName();
+        doReturn(startMillis).when(testResult).getStartMillis();
+        var attributes = new ConcurrentHashMap<String, Object>();
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(testResult).setAttribute(anyString(), any());
+        doAnswer(invocation -> attributes.get(invocation.<String>getArgument(0)))
+            .when(testResult).getAttribute(anyString());
+        return testResult;
+    }
+
+    private WebDriverConfig config(final Path directory) {
+        return ConfigFactory.create(WebDriverConfig.class, Map.of(
+            "wd.screenshot.dir", directory.toString(),
+            "wd.screenshot.fsync", "true"
+        ));
+    }
+}
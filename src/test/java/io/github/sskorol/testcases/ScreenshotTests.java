@@ -0,0 +1,246 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.cdt.protocol.types.page.CaptureScreenshotFormat;
+import io.github.sskorol.cdt.services.ChromeDevToolsService;
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.core.MetricsSink;
+import io.github.sskorol.core.Screenshot;
+import io.github.sskorol.core.ScreenshotCapture;
+import io.github.sskorol.core.ScreenshotConsumer;
+import io.github.sskorol.core.ScreenshotDispatcher;
+import io.github.sskorol.core.ScreenshotStreamConsumer;
+import io.github.sskorol.core.WebDriverContainer;
+import org.aeonbits.owner.ConfigFactory;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class ScreenshotTests {
+
+    private static final byte[] SCREENSHOT = {1, 2, 3};
+
+    @Test
+    public void shouldDeliverScreenshotsOnCallerThreadByDefault() {
+        var dispatcher = new ScreenshotDispatcher(config(Map.of()));
+        var consumer = new RecordingConsumer(null);
+
+        dispatcher.dispatch(SCREENSHOT, mock(ITestResult.class), List.of(consumer));
+
+        assertThat(consumer.threads).containsExactly(Thread.currentThread().getName());
+        assertThat(dispatcher.getConsumerStats().get(RecordingConsumer.class.getName()).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDeliverScreenshotsInBackground() {
+        var dispatcher = new ScreenshotDispatcher(config(Map.of("wd.screenshot.async", "true")));
+        var consumer = new RecordingConsumer(null);
+
+        dispatcher.dispatch(SCREENSHOT, mock(ITestResult.class), List.of(consumer, consumer));
+        dispatcher.flush();
+
+        assertThat(consumer.threads).hasSize(2).allMatch(name -> name.startsWith("wd-screenshot"));
+        assertThat(dispatcher.getQueueDepth()).isZero();
+    }
+
+    @Test
+    public void shouldDropOldestScreenshotsOnOverflow() {
+        var dispatcher = new ScreenshotDispatcher(config(Map.of(
+            "wd.screenshot.async", "true",
+            "wd.screenshot.threads", "1",
+            "wd.screenshot.queue.size", "1",
+            "wd.screenshot.overflow", "drop_oldest"
+        )));
+        var latch = new CountDownLatch(1);
+        var consumer = new RecordingConsumer(latch);
+
+        dispatcher.dispatch(SCREENSHOT, mock(ITestResult.class), List.of(consumer, consumer, consumer));
+        assertThat(dispatcher.getMaxQueueDepth()).isEqualTo(1);
+        latch.countDown();
+        dispatcher.flush();
+
+        assertThat(dispatcher.getDropped()).isEqualTo(1);
+        assertThat(consumer.threads).hasSize(2);
+    }
+
+    @Test
+    public void shouldFallbackToCallerThreadOnOverflow() {
+        var dispatcher = new ScreenshotDispatcher(config(Map.of(
+            "wd.screenshot.async", "true",
+            "wd.screenshot.threads", "1",
+            "wd.screenshot.queue.size", "1",
+            "wd.screenshot.overflow", "caller_runs"
+        )));
+        var latch = new CountDownLatch(1);
+        var consumer = new RecordingConsumer(latch);
+
+        dispatcher.dispatch(SCREENSHOT, mock(ITestResult.class), List.of(consumer, consumer, consumer));
+        assertThat(consumer.threads).containsExactly(Thread.currentThread().getName());
+        latch.countDown();
+        dispatcher.flush();
+
+        assertThat(consumer.threads).hasSize(3);
+        assertThat(dispatcher.getDropped()).isZero();
+    }
+
+    @Test
+    public void shouldRunOnCallerThreadWhenInterruptedWhileBlocked() {
+        var dispatcher = new ScreenshotDispatcher(config(Map.of(
+            "wd.screenshot.async", "true",
+            "wd.screenshot.threads", "1",
+            "wd.screenshot.queue.size", "1",
+            "wd.screenshot.overflow", "block"
+        )));
+        var latch = new CountDownLatch(1);
+        var consumer = new RecordingConsumer(latch);
+
+        Thread.currentThread().interrupt();
+        dispatcher.dispatch(SCREENSHOT, mock(ITestResult.class), List.of(consumer, consumer, consumer));
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(consumer.threads).containsExactly(Thread.currentThread().getName());
+        latch.countDown();
+        dispatcher.flush();
+
+        assertThat(consumer.threads).hasSize(3);
+    }
+
+    @Test
+    public void shouldNotPropagateConsumerFailures() {
+        var dispatcher = new ScreenshotDispatcher(config(Map.of()));
+        ScreenshotConsumer consumer = (screenshot, testResult) -> {
+            throw new IllegalStateException("Storage is unavailable");
+        };
+
+        dispatcher.dispatch(SCREENSHOT, mock(ITestResult.class), List.of(consumer));
+
+        assertThat(dispatcher.getConsumerStats().get(consumer.getClass().getName()).getFailures()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCaptureScreenshotViaDevTools() {
+        var capture = new ScreenshotCapture(config(Map.of(
+            "wd.screenshot.mode", "cdp",
+            "wd.screenshot.format", "jpeg",
+            "wd.screenshot.quality", "50",
+            "wd.screenshot.clip", "0,0,800,600"
+        )));
+        var devTools = mock(ChromeDevToolsService.class, RETURNS_DEEP_STUBS);
+        doReturn(Base64.getEncoder().encodeToString(SCREENSHOT)).when(devTools.getPage()).captureScreenshot(
+            eq(CaptureScreenshotFormat.JPEG), eq(50),
+            argThat(clip -> clip.getWidth() == 800 && clip.getHeight() == 600), eq(true), eq(false)
+        );
+        var container = new WebDriverContainer(mock(RemoteWebDriver.class), null, null).withDevToolsService(devTools);
+
+        assertThat(capture.capture(container).toByteArray()).isEqualTo(SCREENSHOT);
+        verifyNoInteractions(container.getWebDriver());
+    }
+
+    @Test
+    public void shouldCaptureScreenshotViaWebDriverWithoutDevTools() {
+        var capture = new ScreenshotCapture(config(Map.of("wd.screenshot.mode", "cdp")));
+        var driver = mock(RemoteWebDriver.class);
+        doReturn(Screenshot.of(SCREENSHOT)).when(driver).getScreenshotAs(Screenshot.OUTPUT_TYPE);
+
+        assertThat(capture.capture(new WebDriverContainer(driver, null, null)).toByteArray()).isEqualTo(SCREENSHOT);
+    }
+
+    @Test
+    public void shouldDecodeBase64ScreenshotsByChunks() throws IOException {
+        var content = new byte[200_000];
+        new Random(42).nextBytes(content);
+        var screenshot = Screenshot.OUTPUT_TYPE.convertFromBase64Png(Base64.getEncoder().encodeToString(content));
+
+        assertThat(screenshot.size()).isEqualTo(content.length);
+        assertThat(screenshot.asByteBuffer().isReadOnly()).isTrue();
+        assertThat(screenshot.asByteBuffer().isDirect()).isFalse();
+        try (var stream = screenshot.openStream()) {
+            assertThat(stream.readAllBytes()).isEqualTo(content);
+        }
+        assertThat(screenshot.toByteArray()).isEqualTo(content).isSameAs(screenshot.toByteArray());
+    }
+
+    @Test
+    public void shouldDecodeBase64ScreenshotsOfAnyPadding() {
+        for (var size : List.of(0, 1, 2, 3, 65_535, 65_536, 65_537)) {
+            var content = new byte[size];
+            new Random(size).nextBytes(content);
+
+            assertThat(Screenshot.fromBase64(Base64.getEncoder().encodeToString(content)).toByteArray())
+                .isEqualTo(content);
+            assertThat(Screenshot.fromBase64(Base64.getEncoder().withoutPadding().encodeToString(content)).size())
+                .isEqualTo(size);
+        }
+    }
+
+    @Test
+    public void shouldDecodeLineWrappedBase64Screenshots() {
+        var base64 = Base64.getMimeEncoder().encodeToString(new byte[1000]);
+
+        assertThat(Screenshot.fromBase64(base64).toByteArray()).isEqualTo(new byte[1000]);
+    }
+
+    @Test
+    public void shouldShareScreenshotBetweenStreamAndLegacyConsumers() {
+        var dispatcher = new ScreenshotDispatcher(config(Map.of()));
+        var screenshot = Screenshot.fromBase64(Base64.getEncoder().encodeToString(SCREENSHOT));
+        var received = new CopyOnWriteArrayList<byte[]>();
+        ScreenshotStreamConsumer streamConsumer = (s, r) -> {
+            var buffer = s.asByteBuffer();
+            var content = new byte[buffer.remaining()];
+            buffer.get(content);
+            received.add(content);
+        };
+        var legacyConsumer = new RecordingConsumer(null);
+
+        dispatcher.dispatch(screenshot, mock(ITestResult.class),
+                            List.of(streamConsumer, ScreenshotStreamConsumer.of(legacyConsumer)),
+                            new MetricsSink.Tags(null, null, false));
+
+        assertThat(received).containsExactly(SCREENSHOT);
+        assertThat(legacyConsumer.threads).hasSize(1);
+        assertThat(screenshot.asByteBuffer().remaining()).isEqualTo(SCREENSHOT.length);
+        assertThat(dispatcher.getConsumerStats()).containsKey(RecordingConsumer.class.getName());
+    }
+
+    private WebDriverConfig config(final Map<String, String> properties) {
+        return ConfigFactory.create(WebDriverConfig.class, properties);
+    }
+
+    private static final class RecordingConsumer implements ScreenshotConsumer {
+
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+        private final CountDownLatch latch;
+
+        private RecordingConsumer(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void handle(final byte[] screenshot, final ITestResult testResult) {
+            var thread = Thread.currentThread().getName();
+            if (latch != null && thread.startsWith("wd-screenshot")) {
+                try {
+                    latch.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            threads.add(thread);
+        }
+    }
+}
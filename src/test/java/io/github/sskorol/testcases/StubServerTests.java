@@ -0,0 +1,149 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.config.XmlConfig;
+import io.github.sskorol.core.Browser;
+import io.github.sskorol.core.CommandMetrics;
+import io.github.sskorol.core.DriverConstructor;
+import io.github.sskorol.core.MetricsSink;
+import io.github.sskorol.core.SharedHttpClients;
+import io.github.sskorol.core.WebDriverContainer;
+import io.github.sskorol.core.WebDriverProvider;
+import io.github.sskorol.fixtures.W3CStubServer;
+import one.util.streamex.StreamEx;
+import org.aeonbits.owner.ConfigFactory;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.github.sskorol.config.XmlConfig.TEST_NAME;
+import static io.github.sskorol.core.WebDriverFactory.WDP_DEFAULT;
+import static io.github.sskorol.utils.ServiceLoaderUtils.load;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.ThrowableAssert.catchThrowable;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.openqa.selenium.remote.CapabilityType.BROWSER_NAME;
+
+public class StubServerTests {
+
+    private WebDriverProvider defaultFactory;
+    private Browser firefox;
+    private XmlConfig config;
+
+    @BeforeClass
+    public void setUp() {
+        defaultFactory = StreamEx.of(load(WebDriverProvider.class, getClass().getClassLoader()))
+            .findFirst(f -> f.label().equals(WDP_DEFAULT))
+            .orElseThrow(() -> new AssertionError("Unable to get default factory"));
+        firefox = StreamEx.of(load(Browser.class, getClass().getClassLoader()))
+            .findFirst(f -> f.name() == Browser.Name.Firefox)
+            .orElseThrow(() -> new AssertionError("Unable to get Firefox implementation"));
+        config = new XmlConfig(new HashMap<>() {
+            {
+                put(BROWSER_NAME, "firefox");
+                put(TEST_NAME, "StubServerTests");
+            }
+        });
+    }
+
+    @Test
+    public void shouldCreateRemoteSessionOnStubServer() {
+        try (W3CStubServer server = new W3CStubServer().start()) {
+            Browser browser = spy(firefox);
+            doReturn(server.getUrl()).when(browser).url();
+
+            WebDriver driver = defaultFactory.createDriver(browser, config);
+            assertThat(server.getActiveSessions()).isEqualTo(1);
+            assertThat(((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES)).isNotEmpty();
+            assertThat(driver.manage().window().getSize()).isEqualTo(new Dimension(1280, 1024));
+
+            driver.quit();
+            assertThat(server.getCreatedSessions()).isEqualTo(1);
+            assertThat(server.getDeletedSessions()).isEqualTo(1);
+            assertThat(server.getActiveSessions()).isZero();
+        }
+    }
+
+    @Test
+    public void shouldSkipTestOnInjectedSessionFailure() {
+        try (W3CStubServer server = new W3CStubServer().withFailureRate(1.0).start()) {
+            Browser browser = spy(firefox);
+            doReturn(server.getUrl()).when(browser).url();
+
+            assertThat(catchThrowable(() -> defaultFactory.createDriver(browser, config)))
+                .isInstanceOf(SkipException.class);
+            assertThat(server.getCreatedSessions()).isZero();
+            assertThat(server.getFailures()).isPositive();
+        }
+    }
+
+    @Test
+    public void shouldShareHttpClientBetweenSessions() throws MalformedURLException {
+        try (W3CStubServer server = new W3CStubServer().start()) {
+            var clients = new SharedHttpClients(ConfigFactory.create(WebDriverConfig.class, Map.of()));
+            var url = new URL(server.getUrl());
+            var constructor = DriverConstructor.of(Browser.Name.Remote);
+
+            WebDriver first = constructor.create(clients.createExecutor(url), new FirefoxOptions());
+            WebDriver second = constructor.create(clients.createExecutor(url), new FirefoxOptions());
+            assertThat(((TakesScreenshot) second).getScreenshotAs(OutputType.BYTES)).isNotEmpty();
+            first.quit();
+            second.quit();
+
+            assertThat(clients.size()).isEqualTo(1);
+            assertThat(server.getCreatedSessions()).isEqualTo(2);
+            assertThat(server.getDeletedSessions()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void shouldRecordTimingsPerCommand() throws IOException {
+        try (W3CStubServer server = new W3CStubServer().withLatency(Duration.ofMillis(5)).start()) {
+            var report = Files.createTempDirectory("commands").resolve("commands.csv");
+            var metrics = new CommandMetrics(ConfigFactory.create(WebDriverConfig.class, Map.of(
+                "wd.command.metrics", "true",
+                "wd.command.report", report.toString()
+            )));
+            var driver = metrics.instrument(new RemoteWebDriver(new URL(server.getUrl()), new FirefoxOptions()));
+            var container = new WebDriverContainer(driver, null, null)
+                .withTags(new MetricsSink.Tags("firefox", WDP_DEFAULT, true));
+
+            assertThat(driver).isInstanceOf(RemoteWebDriver.class);
+            ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            driver.getWindowHandle();
+            var stats = metrics.collect(container);
+
+            assertThat(stats).hasValueSatisfying(histograms -> {
+                assertThat(histograms.get(DriverCommand.SCREENSHOT).getCount()).isEqualTo(2);
+                assertThat(histograms.get(DriverCommand.SCREENSHOT).getMaxMicros()).isGreaterThanOrEqualTo(5000);
+                assertThat(histograms.get(DriverCommand.GET_CURRENT_WINDOW_HANDLE).getCount()).isEqualTo(1);
+            });
+            driver.quit();
+            assertThat(metrics.collect(container)).hasValueSatisfying(histograms -> assertThat(histograms)
+                .containsOnlyKeys(DriverCommand.QUIT));
+
+            metrics.report();
+            var lines = Files.readAllLines(report);
+            assertThat(lines).hasSize(4);
+            assertThat(lines.get(0)).startsWith("browser,provider,remote,command,count,total_ms");
+            assertThat(Files.readString(report)).contains("firefox,wdp_default,true,screenshot,2,");
+        }
+    }
+}
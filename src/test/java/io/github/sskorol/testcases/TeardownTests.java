@@ -0,0 +1,121 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.cdt.services.ChromeDevToolsService;
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.config.XmlConfig;
+import io.github.sskorol.core.TeardownExecutor;
+import io.github.sskorol.core.WebDriverContainer;
+import org.aeonbits.owner.ConfigFactory;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class TeardownTests {
+
+    @Test
+    public void shouldQuitSessionOnCallerThreadByDefault() {
+        var teardown = new TeardownExecutor(config(Map.of()));
+        var container = container();
+
+        teardown.submit(container);
+
+        verify(container.getWebDriver()).quit();
+        assertThat(teardown.getStats().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldQuitSessionsInBackground() {
+        var teardown = new TeardownExecutor(config(Map.of("wd.teardown.async", "true")));
+        var container = container();
+        var devTools = mock(ChromeDevToolsService.class);
+        container.withDevToolsService(devTools);
+
+        teardown.submit(container);
+        var summary = teardown.drain();
+
+        verify(devTools).close();
+        verify(container.getWebDriver()).quit();
+        assertThat(summary.stats().getCount()).isEqualTo(1);
+        assertThat(summary.stats().getFailures()).isZero();
+        assertThat(teardown.getStats().getCount()).isZero();
+    }
+
+    @Test
+    public void shouldQuitSessionsSubmittedAfterDrainOnCallerThread() {
+        var teardown = new TeardownExecutor(config(Map.of("wd.teardown.async", "true")));
+        var container = container();
+        var threads = new ArrayList<String>();
+        doAnswer(invocation -> threads.add(Thread.currentThread().getName())).when(container.getWebDriver()).quit();
+
+        teardown.drain();
+        teardown.submit(container);
+        teardown.open();
+        teardown.submit(container);
+        teardown.drain();
+
+        assertThat(threads).hasSize(2).first().isEqualTo(Thread.currentThread().getName());
+        assertThat(threads.get(1)).startsWith("wd-teardown");
+    }
+
+    @Test
+    public void shouldNotOpenDevToolsConnectionOnTeardown() {
+        var teardown = new TeardownExecutor(config(Map.of()));
+        var container = container().withDevToolsService(() -> {
+            throw new AssertionError("DevTools connection should not be opened");
+        });
+
+        teardown.submit(container);
+
+        verify(container.getWebDriver()).quit();
+        assertThat(container.isDevToolsServiceOpened()).isFalse();
+        assertThat(teardown.getStats().getFailures()).isZero();
+    }
+
+    @Test
+    public void shouldReportQuitFailures() {
+        var teardown = new TeardownExecutor(config(Map.of("wd.teardown.async", "true")));
+        var container = container();
+        doThrow(new WebDriverException("Session is gone")).when(container.getWebDriver()).quit();
+
+        teardown.submit(container);
+        var summary = teardown.drain();
+
+        assertThat(summary.stats().getFailures()).isEqualTo(1);
+        assertThat(summary.timeouts()).isZero();
+    }
+
+    @Test
+    public void shouldInterruptHangingQuit() {
+        var teardown = new TeardownExecutor(config(Map.of("wd.teardown.async", "true", "wd.teardown.timeout", "1")));
+        var container = container();
+        doAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return null;
+        }).when(container.getWebDriver()).quit();
+
+        teardown.submit(container);
+        var summary = teardown.drain();
+
+        assertThat(summary.timeouts()).isEqualTo(1);
+        assertThat(summary.stats().getFailures()).isEqualTo(1);
+        assertThat(summary.stats().getMaxMillis()).isLessThan(10_000);
+        assertThat(teardown.getTimeouts()).isZero();
+    }
+
+    private WebDriverConfig config(final Map<String, String> properties) {
+        return ConfigFactory.create(WebDriverConfig.class, properties);
+    }
+
+    private WebDriverContainer container() {
+        final WebDriver driver = mock(RemoteWebDriver.class);
+        return new WebDriverContainer(driver, null, new XmlConfig(new HashMap<>()));
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.sskorol.testcases;
+
+import io.github.sskorol.config.WebDriverConfig;
+import io.github.sskorol.core.Screenshot;
+import io.github.sskorol.core.VisualCheck;
+import io.github.sskorol.core.VisualDiff;
+import org.aeonbits.owner.ConfigFactory;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static io.github.sskorol.core.VisualCheck.BASELINE_ATTRIBUTE;
+import static io.github.sskorol.core.VisualCheck.DIFF_RATIO_ATTRIBUTE;
+import static io.github.sskorol.core.VisualCheck.DIFF_REGIONS_ATTRIBUTE;
+import static java.awt.image.BufferedImage.TYPE_3BYTE_BGR;
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class VisualDiffTests {
+
+    private final VisualDiff visualDiff = new VisualDiff(16, 0, new ForkJoinPool(4));
+
+    @Test
+    public void shouldTreatEqualImagesAsIdentical() {
+        var result = visualDiff.compare(image(TYPE_INT_RGB), image(TYPE_INT_RGB), false);
+
+        assertThat(result.isIdentical()).isTrue();
+        assertThat(result.regions()).isEmpty();
+        assertThat(result.complete()).isTrue();
+    }
+
+    @Test
+    public void shouldReportDiffRegionsPerTile() {
+        var actual = image(TYPE_INT_RGB);
+        actual.setRGB(3, 4, 0xFF0000);
+        actual.setRGB(5, 9, 0xFF0000);
+        actual.setRGB(40, 20, 0xFF0000);
+
+        var result = visualDiff.compare(actual, image(TYPE_INT_RGB), false);
+
+        assertThat(result.differentPixels()).isEqualTo(3);
+        assertThat(result.ratio()).isEqualTo(3.0 / (64 * 48));
+        assertThat(result.regions()).containsExactlyInAnyOrder(new Rectangle(3, 4, 3, 6), new Rectangle(40, 20, 1, 1));
+    }
+
+    @Test
+    public void shouldStopOnFirstDifferenceInFailFastMode() {
+        var actual = image(TYPE_3BYTE_BGR);
+        actual.setRGB(0, 0, 0xFFFFFF);
+        actual.setRGB(63, 47, 0xFFFFFF);
+
+        var result = visualDiff.compare(actual, image(TYPE_3BYTE_BGR), true);
+
+        assertThat(result.isIdentical()).isFalse();
+        assertThat(result.regions()).hasSizeBetween(1, 2);
+        assertThat(result.complete()).isFalse();
+    }
+
+    @Test
+    public void shouldIgnoreDifferencesWithinTolerance() {
+        var actual = image(TYPE_3BYTE_BGR);
+        actual.setRGB(10, 10, 0x121212);
+
+        assertThat(new VisualDiff(16, 2, ForkJoinPool.commonPool())
+                       .compare(actual, image(TYPE_3BYTE_BGR), false).isIdentical()).isTrue();
+        assertThat(new VisualDiff(16, 1, ForkJoinPool.commonPool())
+                       .compare(actual, image(TYPE_3BYTE_BGR), false).differentPixels()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCompareImagesOfDifferentTypes() {
+        var actual = image(TYPE_INT_RGB);
+        actual.setRGB(1, 1, 0x000000);
+
+        var result = visualDiff.compare(actual, image(TYPE_3BYTE_BGR), false);
+
+        assertThat(result.differentPixels()).isEqualTo(1);
+        assertThat(result.regions()).containsExactly(new Rectangle(1, 1, 1, 1));
+    }
+
+    @Test
+    public void shouldTreatImagesOfDifferentSizeAsDifferent() {
+        var result = visualDiff.compare(image(TYPE_INT_RGB), new BufferedImage(32, 32, TYPE_INT_RGB), true);
+
+        assertThat(result.ratio()).isEqualTo(1.0);
+        assertThat(result.regions()).containsExactly(new Rectangle(0, 0, 64, 48));
+    }
+
+    @Test
+    public void shouldCreateBaselineAndCompareWithIt() throws IOException {
+        var directory = Files.createTempDirectory("baselines");
+        var check = new VisualCheck(config(directory));
+        var first = testResult();
+
+        assertThat(check.check(png(image(TYPE_INT_RGB)), first)).isEmpty();
+        var baseline = directory.resolve("suite").resolve("test").resolve("VisualDiffTests.shouldOpenPage.png");
+        assertThat(baseline).exists();
+        verify(first).setAttribute(BASELINE_ATTRIBUTE, baseline);
+
+        var changed = image(TYPE_INT_RGB);
+        changed.setRGB(0, 0, 0);
+        var second = testResult();
+        var result = check.check(png(changed), second);
+
+        assertThat(result).hasValueSatisfying(r -> assertThat(r.differentPixels()).isEqualTo(1));
+        verify(second).setAttribute(DIFF_RATIO_ATTRIBUTE, 1.0 / (64 * 48));
+        verify(second).setAttribute(DIFF_REGIONS_ATTRIBUTE, List.of(new Rectangle(0, 0, 1, 1)));
+        verify(second).setStatus(ITestResult.FAILURE);
+        verify(second).setThrowable(any(AssertionError.class));
+    }
+
+    @Test
+    public void shouldCompareAgainAfterShutdown() throws IOException {
+        var check = new VisualCheck(config(Files.createTempDirectory("baselines")));
+        check.check(png(image(TYPE_INT_RGB)), testResult());
+
+        assertThat(check.check(png(image(TYPE_INT_RGB)), testResult())).isNotEmpty();
+        check.shutdown();
+        assertThat(check.check(png(image(TYPE_INT_RGB)), testResult()))
+            .hasValueSatisfying(result -> assertThat(result.isIdentical()).isTrue());
+        check.shutdown();
+    }
+
+    @Test
+    public void shouldFailOnAnyDifferenceInFailFastMode() throws IOException {
+        var directory = Files.createTempDirectory("baselines");
+        var check = new VisualCheck(ConfigFactory.create(WebDriverConfig.class, Map.of(
+            "wd.visual.baseline.dir", directory.toString(),
+            "wd.visual.fail.on.mismatch", "true",
+            "wd.visual.fail.fast", "true",
+            "wd.visual.threshold", "0.5"
+        )));
+        check.check(png(image(TYPE_INT_RGB)), testResult());
+
+        var changed = image(TYPE_INT_RGB);
+        changed.setRGB(0, 0, 0);
+        var testResult = testResult();
+
+        assertThat(check.check(png(changed), testResult)).hasValueSatisfying(r -> assertThat(r.complete()).isFalse());
+        verify(testResult).setStatus(ITestResult.FAILURE);
+    }
+
+    @Test
+    public void shouldSkipNonPngScreenshots() throws IOException {
+        var directory = Files.createTempDirectory("baselines");
+        var output = new ByteArrayOutputStream();
+        ImageIO.write(image(TYPE_INT_RGB), "jpeg", output);
+        var testResult = testResult();
+
+        assertThat(new VisualCheck(config(directory)).check(Screenshot.of(output.toByteArray()), testResult)).isEmpty();
+        assertThat(directory).isEmptyDirectory();
+        verify(testResult, never()).setStatus(anyInt());
+    }
+
+    private BufferedImage image(final int type) {
+        var image = new BufferedImage(64, 48, type);
+        var graphics = image.createGraphics();
+        graphics.setColor(new Color(0x101010));
+        graphics.fillRect(0, 0, 64, 48);
+        graphics.dispose();
+        return image;
+    }
+
+    private Screenshot png(final BufferedImage image) throws IOException {
+        var output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return Screenshot.of(output.toByteArray());
+    }
+
+    private ITestResult testResult() {
+        var testResult = mock(ITestResult.class, RETURNS_DEEP_STUBS);
+        doReturn("suite").when(testResult.getTestContext().getSuite()).getName();
+        doReturn("test").when(testResult.getTestContext()).getName();
+        doReturn(getClass()).when(testResult.getMethod()).getRealClass();
+        doReturn("shouldOpenPage").when(testResult.getMethod()).getMethodName();
+        doReturn(ITestResult.SUCCESS).when(testResult).getStatus();
+        return testResult;
+    }
+
+    private WebDriverConfig config(final Path directory) {
+        return ConfigFactory.create(WebDriverConfig.class, Map.of(
+            "wd.visual.baseline.dir", directory.toString(),
+            "wd.visual.fail.on.mismatch", "true"
+        ));
+    }
+}
@@ -0,0 +1,255 @@
+package io.github.sskorol.fixtures;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lightweight in-process stand-in for a W3C WebDriver endpoint. Supports new session, delete session, screenshot,
+ * window rect / maximize and status commands. Other commands of a known session are acknowledged with a null value.
+ * Each request could be delayed by an injected latency, and fail with a given probability.
+ * Status and delete session commands never fail, so that sessions could always be cleaned up.
+ */
+@Slf4j
+@SuppressWarnings("FinalLocalVariable")
+public class W3CStubServer implements AutoCloseable {
+
+    private static final String SCREENSHOT =
+        "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNkYAAAAAYAAjCB0C8AAAAASUVORK5CYII=";
+    private static final String WINDOW_HANDLE = "window-1";
+    private static final int DEFAULT_WIDTH = 1280;
+    private static final int DEFAULT_HEIGHT = 1024;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final LongAdder createdSessions = new LongAdder();
+    private final LongAdder deletedSessions = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder handlingNanos = new LongAdder();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double failureRate;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public W3CStubServer withLatency(final Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * @param failureRate probability within [0, 1] range of a command's failure
+     */
+    public W3CStubServer withFailureRate(final double failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    public synchronized W3CStubServer start() {
+        try {
+            executor = Executors.newCachedThreadPool(task -> {
+                var thread = new Thread(task, "w3c-stub-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.setExecutor(executor);
+            server.createContext("/", this::handle);
+            server.start();
+            return this;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to start W3C stub server", ex);
+        }
+    }
+
+    /**
+     * @return endpoint, which could be returned by {@code Browser.url()}
+     */
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/wd/hub";
+    }
+
+    public long getCreatedSessions() {
+        return createdSessions.sum();
+    }
+
+    public long getDeletedSessions() {
+        return deletedSessions.sum();
+    }
+
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return total time spent on handling requests, including injected latency
+     */
+    public long getHandlingNanos() {
+        return handlingNanos.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        var start = System.nanoTime();
+        requests.increment();
+        try {
+            var body = exchange.getRequestBody().readAllBytes();
+            var segments = segments(exchange.getRequestURI().getPath());
+            var response = isIdempotent(exchange.getRequestMethod(), segments) || !shouldFail()
+                           ? route(exchange.getRequestMethod(), segments, body)
+                           : error(500, "unknown error", "Injected failure");
+            delay();
+            var payload = mapper.writeValueAsBytes(response.payload());
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status(), payload.length);
+            exchange.getResponseBody().write(payload);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Unable to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), ex);
+        } finally {
+            exchange.close();
+            handlingNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private Response route(final String method, final List<String> segments, final byte[] body) throws IOException {
+        if (segments.isEmpty()) {
+            return error(404, "unknown command", "Unknown command");
+        }
+
+        if ("status".equals(segments.get(0))) {
+            return ok(Map.of("ready", true, "message", "W3C stub server is ready"));
+        }
+
+        if (segments.size() == 1) {
+            return "POST".equals(method)
+                   ? newSession(body)
+                   : error(405, "unknown method", "Unsupported method " + method + " of /session");
+        }
+
+        var sessionId = segments.get(1);
+        if (!sessions.contains(sessionId)) {
+            return error(404, "invalid session id", "Unknown session " + sessionId);
+        }
+
+        var command = String.join("/", segments.subList(2, segments.size()));
+        return switch (method + " " + command) {
+            case "DELETE " -> {
+                sessions.remove(sessionId);
+                deletedSessions.increment();
+                yield ok(null);
+            }
+            case "GET screenshot" -> ok(SCREENSHOT);
+            case "GET window/rect", "POST window/maximize" -> ok(rect(DEFAULT_WIDTH, DEFAULT_HEIGHT));
+            case "POST window/rect" -> {
+                var rect = mapper.readTree(body);
+                yield ok(rect(rect.path("width").asInt(DEFAULT_WIDTH), rect.path("height").asInt(DEFAULT_HEIGHT)));
+            }
+            case "GET window" -> ok(WINDOW_HANDLE);
+            case "GET window/handles" -> ok(List.of(WINDOW_HANDLE));
+            default -> ok(null);
+        };
+    }
+
+    private Response newSession(final byte[] body) throws IOException {
+        var capabilities = mapper.readTree(body).path("capabilities");
+        var browserName = capabilities.path("alwaysMatch").path("browserName").asText(
+            capabilities.path("firstMatch").path(0).path("browserName").asText("chrome")
+        );
+        var sessionId = UUID.randomUUID().toString().replace("-", "");
+        sessions.add(sessionId);
+        createdSessions.increment();
+        return ok(Map.of(
+            "sessionId", sessionId,
+            "capabilities", Map.of("browserName", browserName, "browserVersion", "stub", "platformName", "linux")
+        ));
+    }
+
+    private boolean isIdempotent(final String method, final List<String> segments) {
+        return segments.isEmpty()
+               || "status".equals(segments.get(0))
+               || "DELETE".equals(method) && segments.size() == 2;
+    }
+
+    private boolean shouldFail() {
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            failures.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private void delay() {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static List<String> segments(final String path) {
+        var segments = Arrays.stream(path.split("/")).filter(segment -> !segment.isEmpty()).toList();
+        var start = 0;
+        while (start < segments.size() && !"session".equals(segments.get(start))
+               && !"status".equals(segments.get(start))) {
+            start++;
+        }
+        return segments.subList(start, segments.size());
+    }
+
+    private static Map<String, Object> rect(final int width, final int height) {
+        var rect = new LinkedHashMap<String, Object>();
+        rect.put("x", 0);
+        rect.put("y", 0);
+        rect.put("width", width);
+        rect.put("height", height);
+        return rect;
+    }
+
+    private static Response ok(final Object value) {
+        return new Response(200, Collections.singletonMap("value", value));
+    }
+
+    private static Response error(final int status, final String error, final String message) {
+        return new Response(status, Map.of("value", Map.of("error", error, "message", message, "stacktrace", "")));
+    }
+
+    private record Response(int status, Map<String, Object> payload) {
+    }
+}